@@ -0,0 +1,54 @@
+// benchmarks/AccountBenchmark.java
+package benchmarks;
+
+import entities.ChequeAccount;
+import entities.Customer;
+import org.openjdk.jmh.annotations.*;
+import services.TransactionJournal;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account.deposit and ChequeAccount.withdraw, including the journal write,
+ * under each journal durability mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountBenchmark {
+
+    @Param({"SYNC", "GROUP_COMMIT", "ASYNC"})
+    public TransactionJournal.DurabilityMode mode;
+
+    private Path dbFile;
+    private ChequeAccount account;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = BenchmarkDatabase.create(0, 0);
+        TransactionJournal.configure(mode, 5, 10_000);
+        Customer customer = new Customer("Bench", "Mark", "Gaborone", "BENCH1", "1234");
+        account = new ChequeAccount("BENCHACC1", "Main Branch", customer, "Employer", "Address", 1_000_000_000_00L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.destroy(dbFile);
+    }
+
+    @Benchmark
+    public long deposit() {
+        account.deposit(100_00);
+        return account.getBalanceCents();
+    }
+
+    @Benchmark
+    public long withdraw() {
+        account.withdraw(1_00);
+        return account.getBalanceCents();
+    }
+}
@@ -0,0 +1,38 @@
+// benchmarks/BenchmarkDatabase.java
+package benchmarks;
+
+import services.TransactionJournal;
+import tools.SyntheticDataGenerator;
+import utils.DatabaseManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Temp-file SQLite database for a benchmark trial, optionally pre-filled
+ * with a synthetic population (1k to 1M accounts).
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    static Path create(int accounts, int transactionsPerAccount) throws Exception {
+        Path file = Files.createTempFile("banking-jmh", ".db");
+        DatabaseManager.configure("jdbc:sqlite:" + file.toAbsolutePath(), 4);
+        DatabaseManager.initialize();
+        if (accounts > 0) {
+            new SyntheticDataGenerator(42).generate(accounts, 2, transactionsPerAccount);
+        }
+        return file;
+    }
+
+    static void destroy(Path file) throws IOException {
+        TransactionJournal.shutdown();
+        DatabaseManager.shutdown();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(Path.of(file + "-wal"));
+        Files.deleteIfExists(Path.of(file + "-shm"));
+    }
+}
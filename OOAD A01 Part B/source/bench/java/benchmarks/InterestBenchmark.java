@@ -0,0 +1,54 @@
+// benchmarks/InterestBenchmark.java
+package benchmarks;
+
+import entities.Account;
+import org.openjdk.jmh.annotations.*;
+import services.InterestRunReport;
+import services.InterestService;
+import services.PersistenceService;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full monthly interest run per invocation. Every invocation credits a
+ * new month, since a month that has already been credited is skipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InterestBenchmark {
+
+    @Param({"1000", "100000"})
+    public int accounts;
+
+    private Path dbFile;
+    private List<Account> allAccounts;
+    private InterestService interestService;
+    private YearMonth period = YearMonth.of(2000, 1);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = BenchmarkDatabase.create(accounts, 1);
+        allAccounts = new ArrayList<>();
+        new PersistenceService().loadAllCustomers().forEach(c -> allAccounts.addAll(c.getAccounts()));
+        interestService = new InterestService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.destroy(dbFile);
+    }
+
+    @Benchmark
+    public InterestRunReport processMonthlyInterest() {
+        period = period.plusMonths(1);
+        return interestService.processMonthlyInterest(allAccounts, period);
+    }
+}
@@ -0,0 +1,47 @@
+// benchmarks/LoadBenchmark.java
+package benchmarks;
+
+import entities.Customer;
+import org.openjdk.jmh.annotations.*;
+import services.PersistenceService;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup load of the whole book via PersistenceService.loadAllCustomers().
+ * For the 1M-account population run with -p accounts=1000000 and a large heap (-jvmArgs -Xmx8g).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LoadBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int accounts;
+
+    @Param({"10"})
+    public int transactionsPerAccount;
+
+    private Path dbFile;
+    private final PersistenceService persistenceService = new PersistenceService();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = BenchmarkDatabase.create(accounts, transactionsPerAccount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.destroy(dbFile);
+    }
+
+    @Benchmark
+    public List<Customer> loadAllCustomers() {
+        return persistenceService.loadAllCustomers();
+    }
+}
@@ -0,0 +1,76 @@
+// benchmarks/MoneyBenchmark.java
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import utils.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Twelve months of 5% interest on 1,024 balances: long cents (what the
+ * entities use) against the double and BigDecimal alternatives.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    private static final int ACCOUNTS = 1024;
+    private static final int MONTHS = 12;
+    private static final BigDecimal RATE = new BigDecimal("0.05");
+
+    private final long[] cents = new long[ACCOUNTS];
+    private final double[] doubles = new double[ACCOUNTS];
+    private final BigDecimal[] decimals = new BigDecimal[ACCOUNTS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            cents[i] = 500_00 + random.nextInt(10_000_00);
+            doubles[i] = cents[i] / 100.0;
+            decimals[i] = BigDecimal.valueOf(cents[i], 2);
+        }
+    }
+
+    @Benchmark
+    public long longCents() {
+        long total = 0;
+        for (long balance : cents) {
+            for (int m = 0; m < MONTHS; m++) {
+                balance += Money.applyRate(balance, 50_000);
+            }
+            total += balance;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double binaryDouble() {
+        double total = 0;
+        for (double balance : doubles) {
+            for (int m = 0; m < MONTHS; m++) {
+                balance += balance * 0.05;
+            }
+            total += balance;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal balance : decimals) {
+            for (int m = 0; m < MONTHS; m++) {
+                balance = balance.add(balance.multiply(RATE).setScale(2, RoundingMode.HALF_EVEN));
+            }
+            total = total.add(balance);
+        }
+        return total;
+    }
+}
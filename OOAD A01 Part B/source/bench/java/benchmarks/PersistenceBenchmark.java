@@ -0,0 +1,41 @@
+// benchmarks/PersistenceBenchmark.java
+package benchmarks;
+
+import entities.Transaction;
+import org.openjdk.jmh.annotations.*;
+import services.PersistenceService;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single synchronous PersistenceService.saveTransaction() insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    private Path dbFile;
+    private final PersistenceService persistenceService = new PersistenceService();
+    private final Transaction transaction = new Transaction("Deposit", 100_00, 1_000_00);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = BenchmarkDatabase.create(0, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.destroy(dbFile);
+    }
+
+    @Benchmark
+    public void saveTransaction() throws SQLException {
+        persistenceService.saveTransaction(transaction, "BENCHACC1");
+    }
+}
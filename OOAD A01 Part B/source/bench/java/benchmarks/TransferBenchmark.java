@@ -0,0 +1,62 @@
+// benchmarks/TransferBenchmark.java
+package benchmarks;
+
+import entities.Account;
+import entities.ChequeAccount;
+import entities.Customer;
+import org.openjdk.jmh.annotations.*;
+import services.TransactionJournal;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account.transferTo between random pairs from four threads at once.
+ * Fewer accounts means more contention on the same locks; two accounts
+ * makes every pair of concurrent transfers collide in opposite directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class TransferBenchmark {
+
+    @Param({"2", "16", "1024"})
+    public int accountCount;
+
+    private Path dbFile;
+    private Account[] accounts;
+
+    @State(Scope.Thread)
+    public static class Picker {
+        final SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = BenchmarkDatabase.create(0, 0);
+        TransactionJournal.configure(TransactionJournal.DurabilityMode.ASYNC, 0, 100_000);
+        Customer customer = new Customer("Bench", "Mark", "Gaborone", "BENCH1", "1234");
+        accounts = new Account[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = new ChequeAccount("XFER" + i, "Main Branch", customer, "Employer", "Address", 1_000_000_000_00L);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.destroy(dbFile);
+    }
+
+    @Benchmark
+    public long transfer(Picker picker) {
+        int from = picker.random.nextInt(accountCount);
+        int to = (from + 1 + picker.random.nextInt(accountCount - 1)) % accountCount;
+        accounts[from].transferTo(accounts[to], 1_00);
+        return accounts[from].getBalanceCents();
+    }
+}
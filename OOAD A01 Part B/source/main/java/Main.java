@@ -2,6 +2,7 @@
 import entities.*;
 import services.*;
 import controllers.InterestProcessingController;
+import controllers.TellerLoginController;
 import gui.*;
 
 import javafx.application.Application;
@@ -9,8 +10,15 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.DialogPane;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Main Application Entry Point
@@ -19,30 +27,35 @@ import java.util.List;
  */
 public class Main extends Application {
 
-    private List<Customer> customers = new ArrayList<>();
+    private CustomerRegistry customers = new CustomerRegistry();
     private final BankTeller bankTeller = new BankTeller();
     private final InterestService interestService = new InterestService();
     private final PersistenceService persistenceService = new PersistenceService();
-    private final List<Account> allAccounts = new ArrayList<>();
+    private static final Duration INTEREST_RUN_TIMEOUT = Duration.ofHours(1);
+    private final AtomicBoolean interestRunning = new AtomicBoolean();
+
+    // Ledger snapshot for fast restarts: -Dbanking.snapshot.file, -Dbanking.snapshot.intervalMinutes
+    private final Path snapshotFile = Path.of(System.getProperty("banking.snapshot.file", "banking.snapshot"));
+    private final long snapshotIntervalMinutes = Long.getLong("banking.snapshot.intervalMinutes", 10);
+    private ScheduledExecutorService snapshotScheduler;
 
     @Override
     public void start(Stage primaryStage) {
         // === Initialize Database ===
         utils.DatabaseManager.initialize();
 
-        // === Load Existing Data from SQLite (if any) ===
-        customers = persistenceService.loadAllCustomers();
+        // === Load Existing Data: latest snapshot + newer SQLite rows, or a bounded cache ===
+        customers = CustomerRegistry.open(persistenceService, snapshotFile);
 
         // If no data exists in DB, create sample customers
         if (customers.isEmpty()) {
             Customer olerato = new Customer("Olerato", "Leburu", "Gaborone", "ACC100001", "1234");
             Customer kentsenao = new Customer("Kentsenao", "Baseki", "Francistown", "ACC100002", "5678");
-            customers.add(olerato);
-            customers.add(kentsenao);
+            customers.register(olerato);
+            customers.register(kentsenao);
         }
 
-        // Sync all accounts list for monthly interest processing
-        collectAllAccounts();
+        if (customers.isFullyLoaded()) startSnapshots();
 
         // === Initialize All GUI Scenes ===
 
@@ -52,7 +65,7 @@ public class Main extends Application {
         OpenInvestmentAccountScene investmentScene = new OpenInvestmentAccountScene(customers, bankTeller);
 
         TellerDashboardScene tellerDashboardScene = new TellerDashboardScene(savingsScene, chequeScene, investmentScene);
-        TellerLoginScene tellerLoginScene = new TellerLoginScene(tellerDashboardScene);
+        TellerLoginScene tellerLoginScene = new TellerLoginScene(tellerDashboardScene, new TellerLoginController());
 
         // 🟦 Customer Flow
         CustomerDashboardScene dashboardScene = new CustomerDashboardScene();
@@ -65,30 +78,89 @@ public class Main extends Application {
         // === Start Application: Show Customer Login ===
         customerLoginScene.show();
 
-        // Optional: Press 'I' to run monthly interest
+        // Optional: Press 'I' to run monthly interest, 'M' to print metrics
         primaryStage.setScene(new javafx.scene.Scene(new javafx.scene.layout.VBox()));
         primaryStage.getScene().setOnKeyTyped(e -> {
             if (e.getCharacter().equalsIgnoreCase("i")) {
-                new InterestProcessingController(interestService, allAccounts).processMonthlyInterest();
-                showAlert("Success", "Monthly interest applied and logged.", false);
+                if (!interestRunning.compareAndSet(false, true)) return; // one run at a time
+                UiExecutor.submit(() -> {
+                            try {
+                                // Bounded mode streams the bank from SQLite chunk by chunk instead of holding every account
+                                InterestProcessingController interest = customers.isBounded()
+                                        ? new InterestProcessingController(interestService, customers)
+                                        : new InterestProcessingController(interestService, collectAllAccounts());
+                                return interest.processMonthlyInterest();
+                            } finally {
+                                interestRunning.set(false);
+                            }
+                        }, INTEREST_RUN_TIMEOUT,
+                        report -> showAlert("Success", String.format("Monthly interest applied and logged: %s BWP to %d accounts.",
+                                utils.Money.format(report.getTotalInterestCents()), report.getAccountsCredited()), false),
+                        error -> showAlert("Error", "Interest run failed: " + error.getMessage(), true));
+            } else if (e.getCharacter().equalsIgnoreCase("m")) {
+                System.out.println(utils.Metrics.report());
+                if (customers.isBounded()) System.out.println(customers.getCacheStats());
             }
         });
         primaryStage.hide(); // We use our own stages; this is just a dummy holder
 
         // === On Close: Save All Data to Database ===
         primaryStage.setOnCloseRequest(e -> {
-            persistenceService.saveAllCustomers(customers);
+            persistenceService.saveAllCustomers(new ArrayList<>(customers.all()));
             System.out.println("💾 All customer and account data saved to banking.db");
         });
     }
 
     /**
-     * Collects all accounts from all customers into a shared list
-     * so that monthly interest can be processed automatically.
+     * Flushes queued transactions and releases pooled database connections
+     * when the application exits.
+     */
+    @Override
+    public void stop() {
+        UiExecutor.shutdown();
+        customers.shutdown();
+        if (snapshotScheduler != null) snapshotScheduler.shutdownNow();
+        writeSnapshot();
+        TransactionJournal.shutdown();
+        System.out.println("📊 " + utils.DatabaseManager.getPoolStats());
+        System.out.println("📊 " + utils.Metrics.report());
+        utils.DatabaseManager.shutdown();
+    }
+
+    /**
+     * Writes a ledger snapshot every snapshotIntervalMinutes in the background.
+     */
+    private void startSnapshots() {
+        if (snapshotIntervalMinutes <= 0) return;
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ledger-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(this::writeSnapshot,
+                snapshotIntervalMinutes, snapshotIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    private void writeSnapshot() {
+        if (!customers.isFullyLoaded()) return; // a snapshot needs every customer in memory
+        try {
+            long start = System.nanoTime();
+            long watermark = services.LedgerSnapshot.write(snapshotFile, customers.all());
+            System.out.printf("💾 Snapshot written up to transaction %d in %d ms%n",
+                    watermark, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Failed to write snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Collects all accounts from all customers for an interest run.
+     * Only used when the registry is not bounded; in deferred mode it reads every customer's accounts.
      */
-    private void collectAllAccounts() {
-        allAccounts.clear();
+    private List<Account> collectAllAccounts() {
+        List<Account> allAccounts = new ArrayList<>();
         customers.forEach(c -> allAccounts.addAll(c.getAccounts()));
+        return allAccounts;
     }
 
     /**
@@ -111,8 +183,16 @@ public class Main extends Application {
     /**
      * Launches the JavaFX application.
      * Run with: mvn javafx:run
+     * Pass --server (optionally --port=N) to run the HTTP/JSON API instead,
+     * without any GUI; see {@link tools.BankingServer}.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            if (arg.equals("--server")) {
+                tools.BankingServer.main(args);
+                return;
+            }
+        }
         launch(args);
     }
 }
\ No newline at end of file
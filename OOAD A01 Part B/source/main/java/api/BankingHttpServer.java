@@ -0,0 +1,267 @@
+// api/BankingHttpServer.java
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controllers.BankingFacade;
+import entities.Account;
+import entities.Transaction;
+import utils.LatencyHistogram;
+import utils.Metrics;
+import utils.Money;
+import utils.VirtualThreads;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Local HTTP/JSON API over {@link BankingFacade}, for scripted clients and load
+ * tests without the JavaFX front end. Each request runs on its own (virtual,
+ * where available) thread, so requests blocked on SQLite or the journal don't
+ * hold up others.
+ *
+ * Endpoints (amounts are decimal strings or numbers, e.g. "250.50"):
+ *   POST /api/login                         {"accountNumber","pin"} -> {"token"}
+ *   POST /api/logout
+ *   GET  /api/accounts                      -> the customer's accounts
+ *   GET  /api/accounts/{acc}/balance
+ *   POST /api/accounts/{acc}/deposit        {"amount"}
+ *   POST /api/accounts/{acc}/withdraw       {"amount"}
+ *   POST /api/accounts/{acc}/transfer       {"to","amount"}
+ *   GET  /api/accounts/{acc}/history?limit=50
+ *   POST /api/accounts                      teller only, X-Teller-Pin header;
+ *        {"type":"savings|cheque|investment","customerAccountNumber","pin",
+ *         "company","employerName","employerAddress","initialDeposit"}
+ * Customer calls need "Authorization: Bearer <token>".
+ * Errors are {"error": message} with 400 (bad input), 401 (login), 404 (unknown
+ * account or path), 405, 409 (rule violation, e.g. insufficient funds) or 500.
+ */
+public class BankingHttpServer {
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final LatencyHistogram REQUEST_LATENCY = Metrics.histogram("api.request");
+
+    private final BankingFacade facade;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public BankingHttpServer(BankingFacade facade, String host, int port) throws IOException {
+        this.facade = facade;
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.executor = VirtualThreads.newExecutor("api-worker", Integer.getInteger("banking.api.workers", 32));
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting connections, gives in-flight requests up to delaySeconds
+     * to finish, then shuts the worker threads down.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        int status;
+        String body;
+        try {
+            body = route(exchange);
+            status = 200;
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (SecurityException e) {
+            status = 401;
+            body = error(e.getMessage());
+        } catch (NoSuchElementException e) {
+            status = 404;
+            body = error(e.getMessage());
+        } catch (UnsupportedOperationException e) {
+            status = 405;
+            body = error(e.getMessage());
+        } catch (IllegalStateException e) {
+            status = 409;
+            body = error(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("❌ API request failed: " + exchange.getRequestURI() + ": " + e.getMessage());
+            status = 500;
+            body = error("Internal error.");
+        }
+        Metrics.counter("api.status." + status).increment();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        REQUEST_LATENCY.recordSince(start);
+    }
+
+    private String route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        String token = bearerToken(exchange);
+
+        if (parts.length == 1 && parts[0].equals("login")) {
+            requireMethod(method, "POST");
+            Map<String, String> req = body(exchange);
+            return "{\"token\":" + Json.quote(facade.login(required(req, "accountNumber"), required(req, "pin"))) + "}";
+        }
+        if (parts.length == 1 && parts[0].equals("logout")) {
+            requireMethod(method, "POST");
+            facade.logout(token);
+            return "{}";
+        }
+        if (parts[0].equals("accounts")) {
+            if (parts.length == 1) {
+                if (method.equals("POST")) {
+                    return account(openAccount(exchange));
+                }
+                requireMethod(method, "GET");
+                return accounts(facade.accounts(token));
+            }
+            String acc = parts[1];
+            String action = parts.length == 3 ? parts[2] : "";
+            switch (action) {
+                case "balance" -> {
+                    requireMethod(method, "GET");
+                    return account(facade.account(token, acc));
+                }
+                case "deposit" -> {
+                    requireMethod(method, "POST");
+                    return account(facade.deposit(token, acc, amount(body(exchange), "amount")));
+                }
+                case "withdraw" -> {
+                    requireMethod(method, "POST");
+                    return account(facade.withdraw(token, acc, amount(body(exchange), "amount")));
+                }
+                case "transfer" -> {
+                    requireMethod(method, "POST");
+                    Map<String, String> req = body(exchange);
+                    return account(facade.transfer(token, acc, required(req, "to"), amount(req, "amount")));
+                }
+                case "history" -> {
+                    requireMethod(method, "GET");
+                    String limit = queryParam(exchange, "limit");
+                    return history(facade.recentHistory(token, acc, limit == null ? 50 : Integer.parseInt(limit)));
+                }
+                default -> { }
+            }
+        }
+        throw new NoSuchElementException("Unknown endpoint " + exchange.getRequestURI().getPath());
+    }
+
+    private Account openAccount(HttpExchange exchange) throws IOException {
+        String tellerPin = exchange.getRequestHeaders().getFirst("X-Teller-Pin");
+        Map<String, String> req = body(exchange);
+        String customerAcc = required(req, "customerAccountNumber");
+        String pin = required(req, "pin");
+        return switch (required(req, "type").toLowerCase()) {
+            case "savings" -> facade.openSavingsAccount(tellerPin, customerAcc, pin,
+                    Boolean.parseBoolean(req.get("company")));
+            case "cheque" -> facade.openChequeAccount(tellerPin, customerAcc, pin,
+                    req.get("employerName"), req.get("employerAddress"));
+            case "investment" -> facade.openInvestmentAccount(tellerPin, customerAcc, pin,
+                    amount(req, "initialDeposit"));
+            default -> throw new IllegalArgumentException("type must be savings, cheque or investment.");
+        };
+    }
+
+    // ----- Request helpers -----
+
+    private static void requireMethod(String actual, String expected) {
+        if (!actual.equals(expected)) {
+            throw new UnsupportedOperationException("Use " + expected + " for this endpoint.");
+        }
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && header.startsWith("Bearer ") ? header.substring(7).trim() : null;
+    }
+
+    private static Map<String, String> body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) throw new IllegalArgumentException("Request body too large.");
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String required(Map<String, String> req, String key) {
+        String value = req.get(key);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException(key + " is required.");
+        return value;
+    }
+
+    private static long amount(Map<String, String> req, String key) {
+        return Money.parse(required(req, key)); // NumberFormatException is an IllegalArgumentException -> 400
+    }
+
+    private static String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    // ----- Response bodies -----
+
+    private static String error(String message) {
+        return "{\"error\":" + Json.quote(message) + "}";
+    }
+
+    private static String account(Account a) {
+        long balance = a.getBalanceCents();
+        return "{\"accountNumber\":" + Json.quote(a.getAccountNumber())
+                + ",\"type\":" + Json.quote(a.getClass().getSimpleName())
+                + ",\"branch\":" + Json.quote(a.getBranch())
+                + ",\"balanceCents\":" + balance
+                + ",\"balance\":" + Json.quote(Money.format(balance)) + "}";
+    }
+
+    private static String accounts(List<Account> accounts) {
+        StringBuilder sb = new StringBuilder("{\"accounts\":[");
+        for (int i = 0; i < accounts.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(account(accounts.get(i)));
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static String history(List<Transaction> transactions) {
+        StringBuilder sb = new StringBuilder("{\"transactions\":[");
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction t = transactions.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"type\":").append(Json.quote(t.getType()))
+                    .append(",\"amountCents\":").append(t.getAmountCents())
+                    .append(",\"balanceAfterCents\":").append(t.getBalanceAfterCents())
+                    .append(",\"timestamp\":").append(Json.quote(t.getTimestamp().toString()))
+                    .append('}');
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -0,0 +1,137 @@
+// api/Json.java
+package api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the HTTP API: request bodies are flat objects of
+ * strings, numbers and booleans, and responses are built with {@link #quote}.
+ * Nested objects and arrays in requests are rejected.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Parses a flat JSON object. Values come back as their literal text
+     * (strings unescaped; numbers, true/false as written; null as null).
+     * @throws IllegalArgumentException if the body is not a flat object
+     */
+    static Map<String, String> parseObject(String text) {
+        Parser p = new Parser(text == null ? "" : text);
+        Map<String, String> values = new LinkedHashMap<>();
+        p.skipSpace();
+        if (p.atEnd()) return values; // empty body is treated as {}
+        p.expect('{');
+        p.skipSpace();
+        if (p.peek() == '}') {
+            p.pos++;
+        } else {
+            while (true) {
+                p.skipSpace();
+                String key = p.string();
+                p.skipSpace();
+                p.expect(':');
+                p.skipSpace();
+                values.put(key, p.value());
+                p.skipSpace();
+                if (p.peek() == ',') { p.pos++; continue; }
+                p.expect('}');
+                break;
+            }
+        }
+        p.skipSpace();
+        if (!p.atEnd()) throw new IllegalArgumentException("Unexpected content after JSON object.");
+        return values;
+    }
+
+    /**
+     * The string as a quoted JSON literal.
+     */
+    static String quote(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static final class Parser {
+        private final String s;
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        boolean atEnd() {
+            return pos >= s.length();
+        }
+
+        char peek() {
+            if (atEnd()) throw new IllegalArgumentException("Unexpected end of JSON.");
+            return s.charAt(pos);
+        }
+
+        void skipSpace() {
+            while (!atEnd() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        void expect(char c) {
+            if (peek() != c) throw new IllegalArgumentException("Expected '" + c + "' at position " + pos + ".");
+            pos++;
+        }
+
+        String value() {
+            char c = peek();
+            if (c == '"') return string();
+            if (c == '{' || c == '[') throw new IllegalArgumentException("Nested JSON values are not supported.");
+            int start = pos;
+            while (!atEnd() && ",} \t\r\n".indexOf(s.charAt(pos)) < 0) pos++;
+            String literal = s.substring(start, pos);
+            if (literal.isEmpty()) throw new IllegalArgumentException("Missing value at position " + start + ".");
+            return literal.equals("null") ? null : literal;
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = peek();
+                pos++;
+                if (c == '"') return sb.toString();
+                if (c != '\\') { sb.append(c); continue; }
+                char e = peek();
+                pos++;
+                switch (e) {
+                    case '"', '\\', '/' -> sb.append(e);
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > s.length()) throw new IllegalArgumentException("Bad \\u escape.");
+                        sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> throw new IllegalArgumentException("Bad escape \\" + e + ".");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+// controllers/BankingFacade.java
+package controllers;
+
+import entities.Account;
+import entities.Customer;
+import entities.Transaction;
+import services.BankTeller;
+import services.CustomerRegistry;
+import utils.SegmentedLruCache;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Headless entry point to the banking controllers, for callers without a GUI
+ * (the HTTP API, load tests). Customers log in once and get a session token;
+ * every account operation checks that the account belongs to that session.
+ * Sessions expire after -Dbanking.session.idleMinutes (default 30) without use,
+ * and at most -Dbanking.session.max (default 100,000) are kept; beyond that the
+ * least recently used are dropped.
+ *
+ * Failures are reported as exceptions: SecurityException for bad credentials or
+ * sessions, NoSuchElementException for unknown accounts, and the controllers'
+ * IllegalArgumentException / IllegalStateException for rejected operations.
+ */
+public class BankingFacade {
+    private static final String BRANCH = "Main Branch";
+
+    private final CustomerRegistry customers;
+    private final CustomerLoginController loginController;
+    private final OpenSavingsAccountController savingsController;
+    private final OpenChequeAccountController chequeController;
+    private final OpenInvestmentAccountController investmentController;
+    private final TellerLoginController tellerLoginController;
+
+    private final SegmentedLruCache<String, Session> sessions;
+    private final long idleNanos;
+    private final SecureRandom random = new SecureRandom();
+
+    private static final class Session {
+        final Customer customer;
+        volatile long lastUsed = System.nanoTime();
+
+        Session(Customer customer) {
+            this.customer = customer;
+        }
+    }
+
+    public BankingFacade(CustomerRegistry customers, BankTeller bankTeller) {
+        this.customers = customers;
+        this.loginController = new CustomerLoginController(customers);
+        this.savingsController = new OpenSavingsAccountController(bankTeller);
+        this.chequeController = new OpenChequeAccountController(bankTeller);
+        this.investmentController = new OpenInvestmentAccountController(bankTeller);
+        this.tellerLoginController = new TellerLoginController();
+        this.sessions = new SegmentedLruCache<>("cache.sessions", Integer.getInteger("banking.session.max", 100_000),
+                16, s -> 1, null);
+        this.idleNanos = TimeUnit.MINUTES.toNanos(Long.getLong("banking.session.idleMinutes", 30));
+    }
+
+    /**
+     * Authenticates a customer and opens a session.
+     * @return Session token for the other calls
+     * @throws SecurityException if the account number or PIN is wrong, or the
+     *         account is locked out after repeated failures
+     */
+    public String login(String accountNumber, String pin) {
+        Customer customer = loginController.login(accountNumber, pin);
+        if (customer == null) {
+            if (loginController.isLockedOut(accountNumber)) {
+                throw new SecurityException("Too many failed attempts. Try again later.");
+            }
+            throw new SecurityException("Invalid account number or PIN.");
+        }
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(customer));
+        return token;
+    }
+
+    public void logout(String token) {
+        if (token != null) sessions.invalidate(token);
+    }
+
+    /**
+     * The customer behind a session.
+     * @throws SecurityException if the token is unknown or has expired
+     */
+    public Customer customer(String token) {
+        Session session = token == null ? null : sessions.get(token, t -> null);
+        if (session == null) {
+            throw new SecurityException("Not logged in.");
+        }
+        long now = System.nanoTime();
+        if (now - session.lastUsed > idleNanos) {
+            sessions.invalidate(token);
+            throw new SecurityException("Session expired. Please log in again.");
+        }
+        session.lastUsed = now;
+        return session.customer;
+    }
+
+    public List<Account> accounts(String token) {
+        return new TransactionController(customer(token)).getAccounts();
+    }
+
+    /**
+     * One of the session customer's accounts.
+     * @throws NoSuchElementException if the customer has no such account
+     */
+    public Account account(String token, String accountNumber) {
+        for (Account a : customer(token).getAccounts()) {
+            if (a.getAccountNumber().equals(accountNumber)) return a;
+        }
+        throw new NoSuchElementException("No account " + accountNumber + " for this customer.");
+    }
+
+    public Account deposit(String token, String accountNumber, long amountCents) {
+        Account account = account(token, accountNumber);
+        new TransactionController(customer(token)).deposit(account, amountCents);
+        return account;
+    }
+
+    public Account withdraw(String token, String accountNumber, long amountCents) {
+        Account account = account(token, accountNumber);
+        new TransactionController(customer(token)).withdraw(account, amountCents);
+        return account;
+    }
+
+    public Account transfer(String token, String fromAccountNumber, String toAccountNumber, long amountCents) {
+        Account from = account(token, fromAccountNumber);
+        Account to = account(token, toAccountNumber);
+        new TransactionController(customer(token)).transfer(from, to, amountCents);
+        return from;
+    }
+
+    /**
+     * The most recent transactions on the account, oldest first.
+     * @param limit Maximum number of transactions
+     */
+    public List<Transaction> recentHistory(String token, String accountNumber, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        return account(token, accountNumber).getRecentTransactions(limit);
+    }
+
+    // ----- Teller operations (authorised with the teller PIN) -----
+
+    public Account openSavingsAccount(String tellerPin, String customerAccountNumber, String pin, boolean isCompany) {
+        return open(customerForOpening(tellerPin, customerAccountNumber, pin),
+                customer -> savingsController.openAccount(BRANCH, customer, isCompany));
+    }
+
+    public Account openChequeAccount(String tellerPin, String customerAccountNumber, String pin,
+                                     String employerName, String employerAddress) {
+        if (employerName == null || employerName.isBlank() || employerAddress == null || employerAddress.isBlank()) {
+            throw new IllegalArgumentException("Employer name and address are required.");
+        }
+        return open(customerForOpening(tellerPin, customerAccountNumber, pin),
+                customer -> chequeController.openAccount(BRANCH, customer, employerName, employerAddress));
+    }
+
+    public Account openInvestmentAccount(String tellerPin, String customerAccountNumber, String pin,
+                                         long initialDepositCents) {
+        return open(customerForOpening(tellerPin, customerAccountNumber, pin),
+                customer -> investmentController.openAccount(BRANCH, customer, initialDepositCents));
+    }
+
+    /**
+     * Registers the customer before opening the account, so two openings for
+     * the same new customer both add to the one the registry keeps, then
+     * registers it again to index the new account's branch.
+     */
+    private Account open(Customer customer, Function<Customer, ? extends Account> opening) {
+        Customer registered = customers.register(customer);
+        Account account = opening.apply(registered);
+        customers.register(registered);
+        return account;
+    }
+
+    /**
+     * Finds the customer an account is being opened for, or creates a new one
+     * (the same rules as the teller scenes).
+     */
+    private Customer customerForOpening(String tellerPin, String customerAccountNumber, String pin) {
+        if (!tellerLoginController.login(tellerPin)) {
+            throw new SecurityException(tellerLoginController.isLockedOut()
+                    ? "Too many failed teller attempts. Try again later." : "Invalid teller PIN.");
+        }
+        if (customerAccountNumber == null || customerAccountNumber.isBlank()) {
+            throw new IllegalArgumentException("Customer account number is required.");
+        }
+        if (pin == null || !pin.matches("\\d{4}")) {
+            throw new IllegalArgumentException("PIN must be exactly 4 digits.");
+        }
+        Customer customer = customers.find(customerAccountNumber.trim());
+        return customer != null ? customer : new Customer("New", "Customer", "Gaborone", customerAccountNumber.trim(), pin);
+    }
+}
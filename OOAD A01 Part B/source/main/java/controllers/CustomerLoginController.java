@@ -2,19 +2,31 @@
 package controllers;
 
 import entities.Customer;
-
-import java.util.List;
+import services.CustomerRegistry;
+import services.PersistenceService;
+import utils.LoginThrottle;
+import utils.PinHasher;
 
 /**
  * Controller for handling customer login.
- * Validates credentials and authenticates user access.
+ * Validates credentials and authenticates user access. Accounts with too many
+ * failed attempts are locked out for a while (see {@link LoginThrottle}); a
+ * locked-out attempt is refused without looking the customer up. A PIN hash
+ * that a successful login upgraded is saved straight away.
  */
 public class CustomerLoginController {
 
-    private final List<Customer> customers;
+    private final CustomerRegistry customers;
+    private final LoginThrottle throttle;
+    private final PersistenceService persistenceService = new PersistenceService();
+
+    public CustomerLoginController(CustomerRegistry customers) {
+        this(customers, LoginThrottle.shared());
+    }
 
-    public CustomerLoginController(List<Customer> customers) {
+    public CustomerLoginController(CustomerRegistry customers, LoginThrottle throttle) {
         this.customers = customers;
+        this.throttle = throttle;
     }
 
     /**
@@ -27,11 +39,32 @@ public class CustomerLoginController {
         if (accountNumber == null || pin == null || accountNumber.trim().isEmpty() || pin.trim().isEmpty()) {
             return null;
         }
+        String accNum = accountNumber.trim();
+        if (!throttle.allow(accNum)) {
+            return null;
+        }
+
+        Customer customer = customers.find(accNum);
+        String storedHash = customer == null ? null : customer.getPinHash();
+        boolean valid = customer != null
+                ? customer.authenticate(accNum, pin.trim())
+                : PinHasher.verify(pin, null); // unknown account: same cost, always false
+        if (!valid) {
+            throttle.recordFailure(accNum);
+            return null;
+        }
+        throttle.recordSuccess(accNum);
+        if (!customer.getPinHash().equals(storedHash)) {
+            persistenceService.updatePinHash(customer); // re-hashed at the current cost
+        }
+        customers.prefetch(customer); // the dashboard needs accounts and history next
+        return customer;
+    }
 
-        return customers.stream()
-                .filter(c -> c.getAccountNumber().equals(accountNumber.trim()))
-                .filter(c -> c.authenticate(accountNumber.trim(), pin.trim()))
-                .findFirst()
-                .orElse(null);
+    /**
+     * Whether logins to this account are refused for now after repeated failures.
+     */
+    public boolean isLockedOut(String accountNumber) {
+        return accountNumber != null && throttle.isLocked(accountNumber.trim());
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,14 @@ package controllers;
 
 import entities.Account;
 import entities.Transaction;
+import services.PersistenceService;
+import services.StatementExporter;
+import services.TransactionJournal;
+import services.TransactionPage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -11,8 +18,10 @@ import java.util.List;
  * Retrieves and formats transaction data for UI display.
  */
 public class HistoryViewController {
+    private static final int PAGE_SIZE = 50;
 
     private Account selectedAccount;
+    private final PersistenceService persistenceService = new PersistenceService();
 
     public HistoryViewController() {
         // No dependencies needed — bound at runtime
@@ -36,8 +45,50 @@ public class HistoryViewController {
         return selectedAccount.getTransactionHistory();
     }
 
+    /**
+     * Fetches the next page of history for the selected account from the database.
+     * Asking again after the last page returns whatever has been added since.
+     * @param after The page fetched before, or null to start at the oldest transaction
+     * @return Up to PAGE_SIZE transactions in chronological order
+     */
+    public TransactionPage getHistoryPage(TransactionPage after) {
+        if (selectedAccount == null) {
+            throw new IllegalStateException("No account selected.");
+        }
+        if (after == null || !after.hasMore()) {
+            TransactionJournal.getInstance().flush(); // Make queued writes visible to the query
+        }
+        return persistenceService.loadTransactionPage(selectedAccount.getAccountNumber(), after, PAGE_SIZE);
+    }
+
+    /**
+     * Gets the number of stored transactions for the selected account.
+     * @return Transaction count
+     */
+    public int getTransactionCount() {
+        if (selectedAccount == null) {
+            throw new IllegalStateException("No account selected.");
+        }
+        return persistenceService.countTransactions(selectedAccount.getAccountNumber());
+    }
+
+    /**
+     * Writes a statement for the selected account straight from the database to a file,
+     * without holding the history in memory.
+     * @param from First day, or null for the whole history
+     * @param to Last day, or null for up to now
+     */
+    public StatementExporter.Result exportStatement(Path file, StatementExporter.Format format,
+                                                    LocalDate from, LocalDate to) throws IOException {
+        if (selectedAccount == null) {
+            throw new IllegalStateException("No account selected.");
+        }
+        return new StatementExporter(format).export(selectedAccount.getAccountNumber(), from, to, file);
+    }
+
     /**
      * Gets a formatted string representation of all transactions.
+     * Builds the whole history in memory; use exportStatement for long histories.
      * @return Formatted transaction log
      */
     public String getFormattedHistory() {
@@ -2,6 +2,8 @@
 package controllers;
 
 import entities.Account;
+import services.CustomerRegistry;
+import services.InterestRunReport;
 import services.InterestService;
 
 import java.util.List;
@@ -14,27 +16,40 @@ public class InterestProcessingController {
 
     private final InterestService interestService;
     private final List<Account> allAccounts;
+    private final CustomerRegistry customers;
+    private InterestRunReport lastReport;
 
     public InterestProcessingController(InterestService interestService, List<Account> allAccounts) {
         this.interestService = interestService;
         this.allAccounts = allAccounts;
+        this.customers = null;
+    }
+
+    /**
+     * Credits every account in the registry's bank, read from SQLite a chunk at a time.
+     */
+    public InterestProcessingController(InterestService interestService, CustomerRegistry customers) {
+        this.interestService = interestService;
+        this.allAccounts = null;
+        this.customers = customers;
     }
 
     /**
      * Processes monthly interest for all eligible accounts.
      * Logs each credit as a transaction ("Interest Credited").
      */
-    public void processMonthlyInterest() {
-        interestService.processMonthlyInterest(allAccounts);
+    public InterestRunReport processMonthlyInterest() {
+        lastReport = customers != null
+                ? interestService.processMonthlyInterest(customers)
+                : interestService.processMonthlyInterest(allAccounts);
+        return lastReport;
     }
 
     /**
-     * Gets total interest paid this month.
-     * @return Sum of all interest credited
+     * Gets total interest paid by the last run.
+     * @return Sum of all interest credited in cents, or 0 if no run has happened yet
      */
-    public double getTotalInterestPaid() {
-        return allAccounts.stream()
-                .mapToDouble(Account::applyInterest)
-                .sum();
+    public long getTotalInterestPaid() {
+        return lastReport == null ? 0 : lastReport.getTotalInterestCents();
     }
 }
\ No newline at end of file
@@ -20,7 +20,6 @@ public class OpenChequeAccountController {
      */
     public ChequeAccount openAccount(String branch, Customer customer, String employerName, String employerAddress) {
         ChequeAccount account = bankTeller.openChequeAccount(branch, customer, employerName, employerAddress);
-        customer.addAccount(account);
 
         // ✅ Save customer and all accounts to database
         persistenceService.saveCustomer(customer);
@@ -18,9 +18,8 @@ public class OpenInvestmentAccountController {
     /**
      * Opens an Investment Account for the customer and saves it to the database.
      */
-    public InvestmentAccount openAccount(String branch, Customer customer, double initialDeposit) {
-        InvestmentAccount account = bankTeller.openInvestmentAccount(branch, customer, initialDeposit);
-        customer.addAccount(account);
+    public InvestmentAccount openAccount(String branch, Customer customer, long initialDepositCents) {
+        InvestmentAccount account = bankTeller.openInvestmentAccount(branch, customer, initialDepositCents);
 
         // ✅ Save customer and all accounts to database
         persistenceService.saveCustomer(customer);
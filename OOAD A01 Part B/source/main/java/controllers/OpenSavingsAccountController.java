@@ -20,7 +20,6 @@ public class OpenSavingsAccountController {
      */
     public SavingsAccount openAccount(String branch, Customer customer, boolean isCompany) {
         SavingsAccount account = bankTeller.openSavingsAccount(branch, customer, isCompany);
-        customer.addAccount(account);
 
         // ✅ Save customer and all accounts to database
         persistenceService.saveCustomer(customer);
@@ -0,0 +1,73 @@
+// controllers/TellerLoginController.java
+package controllers;
+
+import utils.LoginThrottle;
+import utils.PinHasher;
+
+import java.security.SecureRandom;
+
+/**
+ * Controller for teller login. The teller PIN comes from -Dbanking.teller.pin,
+ * either as a PIN or as a hash made with utils.PinHasher; a plain PIN is hashed
+ * at startup so it isn't held in memory. There is no default PIN: without the
+ * property a random one is generated once per process and printed to the
+ * console. Repeated failures lock teller login out for a while (see
+ * {@link LoginThrottle}), across all entry points.
+ */
+public class TellerLoginController {
+    private static final String THROTTLE_KEY = " teller"; // leading space: never a (trimmed) account number
+    private static final int GENERATED_PIN_DIGITS = 6;
+
+    private static String configuredPinHash; // guarded by the class lock
+
+    private final String pinHash;
+    private final LoginThrottle throttle;
+
+    public TellerLoginController() {
+        this(configuredPinHash(), LoginThrottle.shared());
+    }
+
+    public TellerLoginController(String pinOrHash, LoginThrottle throttle) {
+        this.pinHash = PinHasher.isHash(pinOrHash) ? pinOrHash : PinHasher.hash(pinOrHash);
+        this.throttle = throttle;
+    }
+
+    /**
+     * Checks the teller PIN.
+     * @return true if it is correct and teller login isn't locked out
+     */
+    public boolean login(String pin) {
+        if (!throttle.allow(THROTTLE_KEY)) {
+            return false;
+        }
+        if (!PinHasher.verify(pin, pinHash)) {
+            throttle.recordFailure(THROTTLE_KEY);
+            return false;
+        }
+        throttle.recordSuccess(THROTTLE_KEY);
+        return true;
+    }
+
+    public boolean isLockedOut() {
+        return throttle.isLocked(THROTTLE_KEY);
+    }
+
+    /**
+     * The hash of -Dbanking.teller.pin, or of a PIN generated on first use when
+     * it isn't set, so every default controller in the process accepts the same PIN.
+     */
+    private static synchronized String configuredPinHash() {
+        if (configuredPinHash == null) {
+            String configured = System.getProperty("banking.teller.pin");
+            if (configured == null || configured.isBlank()) {
+                SecureRandom random = new SecureRandom();
+                StringBuilder pin = new StringBuilder();
+                for (int i = 0; i < GENERATED_PIN_DIGITS; i++) pin.append(random.nextInt(10));
+                configured = pin.toString();
+                System.out.println("🔑 No teller PIN configured (-Dbanking.teller.pin); this run's teller PIN is " + configured);
+            }
+            configuredPinHash = PinHasher.isHash(configured) ? configured : PinHasher.hash(configured);
+        }
+        return configuredPinHash;
+    }
+}
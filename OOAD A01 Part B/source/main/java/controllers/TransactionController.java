@@ -14,24 +14,34 @@ public class TransactionController {
         this.customer = customer;
     }
 
-    public void deposit(Account account, double amount) {
-        if (amount <= 0) {
+    public void deposit(Account account, long amountCents) {
+        if (amountCents <= 0) {
             throw new IllegalArgumentException("Deposit amount must be positive.");
         }
-        account.deposit(amount);
+        account.deposit(amountCents);
     }
 
-    public void withdraw(Account account, double amount) {
+    public void withdraw(Account account, long amountCents) {
         if (account.getClass().getSimpleName().contains("Savings")) {
             throw new IllegalStateException("Withdrawal not allowed from Savings Account.");
         }
-        if (amount <= 0) {
+        if (amountCents <= 0) {
             throw new IllegalArgumentException("Withdrawal amount must be positive.");
         }
-        if (amount > account.getBalance()) {
-            throw new IllegalStateException("Insufficient funds.");
+        account.withdraw(amountCents); // checks and debits atomically; throws on insufficient funds
+    }
+
+    /**
+     * Moves money between two accounts in one step; both rows are saved together.
+     */
+    public void transfer(Account from, Account to, long amountCents) {
+        if (from.getClass().getSimpleName().contains("Savings")) {
+            throw new IllegalStateException("Transfers out of a Savings Account are not allowed.");
+        }
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive.");
         }
-        account.withdraw(amount);
+        from.transferTo(to, amountCents);
     }
 
     public List<Account> getAccounts() {
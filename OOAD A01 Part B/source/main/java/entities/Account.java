@@ -1,76 +1,368 @@
 // entities/Account.java
 package entities;
 
-import services.PersistenceService;
+import services.TransactionJournal;
 import utils.AccountNumberGenerator;
+import utils.LatencyHistogram;
+import utils.Metrics;
+import utils.Money;
+import utils.StripedLock;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class Account {
+    // Balance changes take the account's stripe; size with -Dbanking.account.lockStripes
+    private static final StripedLock LOCKS = new StripedLock(Integer.getInteger("banking.account.lockStripes", 1024));
+
+    private static final LatencyHistogram DEPOSIT_LATENCY = Metrics.histogram("account.deposit");
+    private static final LatencyHistogram WITHDRAW_LATENCY = Metrics.histogram("account.withdraw");
+    private static final LatencyHistogram TRANSFER_LATENCY = Metrics.histogram("account.transfer");
+    private static final LongAdder INSUFFICIENT_FUNDS = Metrics.counter("account.insufficientFunds");
+
     protected String accountNumber;
-    protected double balance;
+    protected volatile long balanceCents; // written only while holding lock()
     protected String branch;
     protected Customer customer;
-    protected List<Transaction> transactionHistory;
+    protected TransactionHistory transactionHistory;
+    // Set while the stored history hasn't been read yet; cleared on first access
+    private volatile HistoryLoader historyLoader;
+    // Created on first subscription; most accounts never have a listener
+    private volatile List<TransactionListener> listeners;
+    // True while the accounts row is missing or out of date; balance changes are saved by the journal
+    private volatile boolean dirty;
+    // Rows queued while the history is deferred; written under lock()
+    private volatile long deferredWrites;
 
     public Account(String branch, Customer customer) {
         this.branch = branch;
         this.customer = customer;
-        this.balance = 0.0;
-        this.transactionHistory = new ArrayList<>();
+        this.balanceCents = 0;
+        this.transactionHistory = new TransactionHistory();
         this.accountNumber = AccountNumberGenerator.generate();
+        this.dirty = true;
     }
 
     /**
-     * Deposits funds into the account and saves the transaction.
+     * Restores an existing account from the database without logging any transactions.
      */
-    public void deposit(double amount) {
-        if (amount <= 0) return;
-        balance += amount;
-        Transaction t = new Transaction("Deposit", amount, balance);
-        transactionHistory.add(t);
+    protected Account(String accountNumber, String branch, Customer customer, long balanceCents) {
+        this.accountNumber = accountNumber;
+        this.branch = branch;
+        this.customer = customer;
+        this.balanceCents = balanceCents;
+        this.transactionHistory = new TransactionHistory();
+    }
 
-        // ✅ Save transaction immediately
-        new PersistenceService().saveTransaction(t, this.accountNumber);
+    /**
+     * Deposits funds into the account and saves the transaction.
+     * @param amountCents Amount in cents
+     */
+    public void deposit(long amountCents) {
+        if (amountCents <= 0) return;
+        long start = System.nanoTime();
+        TransactionJournal.Entry pending;
+        ReentrantLock lock = lock();
+        lock.lock();
+        try {
+            balanceCents += amountCents;
+            pending = record(new Transaction("Deposit", amountCents, balanceCents));
+        } finally {
+            lock.unlock();
+        }
+        pending.awaitWritten();
+        DEPOSIT_LATENCY.recordSince(start);
     }
 
     /**
      * Withdraws funds — must be overridden per account type.
+     * @param amountCents Amount in cents
+     */
+    public abstract void withdraw(long amountCents);
+
+    /**
+     * Checks the balance and debits it as one step, so concurrent withdrawals
+     * can never overdraw the account.
+     * @param amountCents Amount in cents
+     * @throws IllegalStateException if the balance is too low
+     */
+    protected void debit(long amountCents) {
+        if (amountCents <= 0) throw new IllegalArgumentException("Amount must be positive.");
+        long start = System.nanoTime();
+        TransactionJournal.Entry pending;
+        ReentrantLock lock = lock();
+        lock.lock();
+        try {
+            if (amountCents > balanceCents) {
+                INSUFFICIENT_FUNDS.increment();
+                throw new IllegalStateException("Insufficient funds.");
+            }
+            balanceCents -= amountCents;
+            pending = record(new Transaction("Withdrawal", amountCents, balanceCents));
+        } finally {
+            lock.unlock();
+        }
+        pending.awaitWritten();
+        WITHDRAW_LATENCY.recordSince(start);
+    }
+
+    /**
+     * Moves money to another account as one atomic operation: both balances,
+     * both history rows and both database rows change together or not at all.
+     * Locks are taken in stripe order, so opposing transfers can't deadlock.
+     * @param amountCents Amount in cents
+     * @throws IllegalStateException if the balance is too low or this account type can't be debited
+     */
+    public void transferTo(Account target, long amountCents) {
+        if (amountCents <= 0) throw new IllegalArgumentException("Amount must be positive.");
+        if (target == this || target.accountNumber.equals(accountNumber)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account.");
+        }
+
+        long start = System.nanoTime();
+        int mine = LOCKS.stripeOf(accountNumber);
+        int theirs = LOCKS.stripeOf(target.accountNumber);
+        ReentrantLock first = LOCKS.getAt(Math.min(mine, theirs));
+        ReentrantLock second = LOCKS.getAt(Math.max(mine, theirs));
+        TransactionJournal.Entry pending;
+        first.lock();
+        second.lock(); // same stripe: reentrant, just bumps the hold count
+        try {
+            if (!canDebit(amountCents)) {
+                throw new IllegalStateException("Transfers out of this account type are not allowed.");
+            }
+            if (amountCents > balanceCents) {
+                INSUFFICIENT_FUNDS.increment();
+                throw new IllegalStateException("Insufficient funds.");
+            }
+            balanceCents -= amountCents;
+            target.balanceCents += amountCents;
+            Transaction out = new Transaction("Transfer Out", amountCents, balanceCents);
+            Transaction in = new Transaction("Transfer In", amountCents, target.balanceCents);
+            appendHistory(out);
+            target.appendHistory(in);
+            pending = TransactionJournal.getInstance().submitTransfer(out, accountNumber, in, target.accountNumber);
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+        pending.awaitWritten();
+        TRANSFER_LATENCY.recordSince(start);
+    }
+
+    /**
+     * Whether money may leave this account other than through withdraw(); transferTo
+     * asks under the lock. Subclasses whose withdraw() refuses debits must refuse here too.
+     * @param amountCents Amount in cents
      */
-    public abstract void withdraw(double amount);
+    protected boolean canDebit(long amountCents) {
+        return true;
+    }
 
     /**
      * Applies monthly interest — implemented differently per subclass.
+     * @return Interest credited, in cents
+     */
+    public abstract long applyInterest();
+
+    /**
+     * Computes this month's interest in cents without changing the account.
+     */
+    public abstract long calculateInterest();
+
+    /**
+     * Computes this month's interest and credits it as one step under the lock,
+     * then waits for the row to be saved after releasing it. Nothing is logged
+     * when there is no interest, as in InterestService's batch run.
+     * @return Interest credited, in cents
+     */
+    protected long creditInterest() {
+        TransactionJournal.Entry pending = null;
+        long interestCents;
+        ReentrantLock lock = lock();
+        lock.lock();
+        try {
+            interestCents = calculateInterest();
+            if (interestCents > 0) {
+                balanceCents += interestCents;
+                pending = record(new Transaction("Interest Credited", interestCents, balanceCents));
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (pending != null) pending.awaitWritten();
+        return interestCents;
+    }
+
+    /**
+     * Applies an interest transaction that has already been persisted by a batch run.
+     */
+    public void postInterest(Transaction t) {
+        ReentrantLock lock = lock();
+        lock.lock();
+        try {
+            balanceCents += t.getAmountCents();
+            appendHistory(t);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a transaction to the history and queues it on the write-behind journal.
+     * Call while holding lock(); wait on the returned entry after releasing it.
      */
-    public abstract double applyInterest();
+    protected TransactionJournal.Entry record(Transaction t) {
+        appendHistory(t);
+        return TransactionJournal.getInstance().submit(t, this.accountNumber);
+    }
+
+    /**
+     * Adds a saved or queued transaction to the in-memory history. Call while holding lock().
+     * While the history is deferred the row is left to the database, where the
+     * first getTransactionHistory() will find it.
+     */
+    private void appendHistory(Transaction t) {
+        if (historyLoader == null) transactionHistory.add(t);
+        else deferredWrites++;
+        List<TransactionListener> current = listeners;
+        if (current == null) return;
+        for (TransactionListener listener : current) {
+            try {
+                listener.appended(this, t);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Transaction listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Told about every transaction added to an account, in order. Called while
+     * the account lock is held, so it must be quick and hand real work off
+     * (e.g. to Platform.runLater); the history already includes the transaction.
+     */
+    @FunctionalInterface
+    public interface TransactionListener {
+        void appended(Account account, Transaction transaction);
+    }
+
+    public void addTransactionListener(TransactionListener listener) {
+        if (listeners == null) {
+            synchronized (this) {
+                if (listeners == null) listeners = new CopyOnWriteArrayList<>();
+            }
+        }
+        listeners.add(listener);
+    }
+
+    public void removeTransactionListener(TransactionListener listener) {
+        List<TransactionListener> current = listeners;
+        if (current != null) current.remove(listener);
+    }
+
+    /**
+     * Reads this account's stored transactions into a history on first use.
+     */
+    @FunctionalInterface
+    public interface HistoryLoader {
+        void load(Account account, TransactionHistory into);
+    }
+
+    /**
+     * Leaves the stored history in the database until it is first asked for.
+     */
+    public void deferHistory(HistoryLoader loader) {
+        this.historyLoader = loader;
+    }
+
+    public boolean isHistoryLoaded() {
+        return historyLoader == null;
+    }
+
+    /**
+     * Loads a deferred history under the account lock. The journal is flushed
+     * first, without the lock, so rows queued so far are in the database; if
+     * another row is queued for this account before the lock is taken, the
+     * flush is repeated. The last attempt flushes under the lock.
+     */
+    private void loadHistory() {
+        ReentrantLock lock = lock();
+        for (int attempt = 1; ; attempt++) {
+            boolean flushUnderLock = attempt == 3;
+            long queued = deferredWrites;
+            if (!flushUnderLock) TransactionJournal.flushShared();
+            lock.lock();
+            try {
+                HistoryLoader loader = historyLoader;
+                if (loader == null) return;
+                if (flushUnderLock) {
+                    TransactionJournal.flushShared();
+                } else if (deferredWrites != queued) {
+                    continue; // a row was queued after the flush
+                }
+                loader.load(this, transactionHistory);
+                historyLoader = null;
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
 
     /**
-     * Logs interest as a transaction and saves it.
+     * The lock guarding this account's balance and history.
      */
-    protected void logInterest(double interest) {
-        balance += interest;
-        Transaction t = new Transaction("Interest Credited", interest, balance);
-        transactionHistory.add(t);
+    protected ReentrantLock lock() {
+        return LOCKS.get(accountNumber);
+    }
 
-        // ✅ Save interest transaction immediately
-        new PersistenceService().saveTransaction(t, this.accountNumber);
+    /**
+     * Shared lock table, for operations that must hold several accounts at once.
+     */
+    public static StripedLock locks() {
+        return LOCKS;
     }
 
     // Getters
     public String getAccountNumber() { return accountNumber; }
-    public double getBalance() { return balance; }
+    public long getBalanceCents() { return balanceCents; }
     public String getBranch() { return branch; }
     public Customer getCustomer() { return customer; }
-    public List<Transaction> getTransactionHistory() { return transactionHistory; }
+    public TransactionHistory getTransactionHistory() {
+        if (historyLoader != null) loadHistory();
+        return transactionHistory;
+    }
+
+    /**
+     * Copies the last limit transactions, oldest first, under the lock, so the
+     * rows match the balance at one point in time.
+     */
+    public List<Transaction> getRecentTransactions(int limit) {
+        TransactionHistory history = getTransactionHistory();
+        ReentrantLock lock = lock();
+        lock.lock();
+        try {
+            int size = history.size();
+            return new ArrayList<>(history.subList(Math.max(0, size - limit), size));
+        } finally {
+            lock.unlock();
+        }
+    }
 
     // Setters (for DB loading)
-    public void setBalance(double balance) { this.balance = balance; }
-    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+    public void setBalanceCents(long balanceCents) { this.balanceCents = balanceCents; this.dirty = true; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; this.dirty = true; }
+
+    // Dirty tracking for the accounts table
+    public boolean isDirty() { return dirty; }
+    public void markClean() { this.dirty = false; }
 
     @Override
     public String toString() {
-        return String.format("Account{Num='%s', Type='%s', Balance=%.2f BWP}",
-                accountNumber, this.getClass().getSimpleName(), balance);
+        return String.format("Account{Num='%s', Type='%s', Balance=%s BWP}",
+                accountNumber, this.getClass().getSimpleName(), Money.format(balanceCents));
     }
 }
\ No newline at end of file
@@ -1,8 +1,6 @@
 // entities/ChequeAccount.java
 package entities;
 
-import services.PersistenceService;
-
 public class ChequeAccount extends Account {
     private String employerName;
     private String employerAddress;
@@ -13,22 +11,29 @@ public class ChequeAccount extends Account {
         this.employerAddress = employerAddress;
     }
 
-    @Override
-    public void withdraw(double amount) {
-        if (amount <= 0) throw new IllegalArgumentException("Amount must be positive.");
-        if (amount > balance) throw new IllegalStateException("Insufficient funds.");
+    /**
+     * Restores a Cheque Account loaded from the database.
+     */
+    public ChequeAccount(String accountNumber, String branch, Customer customer,
+                         String employerName, String employerAddress, long balanceCents) {
+        super(accountNumber, branch, customer, balanceCents);
+        this.employerName = employerName;
+        this.employerAddress = employerAddress;
+    }
 
-        balance -= amount;
-        Transaction t = new Transaction("Withdrawal", amount, balance);
-        transactionHistory.add(t);
+    @Override
+    public void withdraw(long amountCents) {
+        debit(amountCents);
+    }
 
-        // ✅ Save withdrawal immediately
-        new PersistenceService().saveTransaction(t, this.accountNumber);
+    @Override
+    public long applyInterest() {
+        return 0; // No interest
     }
 
     @Override
-    public double applyInterest() {
-        return 0.0; // No interest
+    public long calculateInterest() {
+        return 0;
     }
 
     public String getEmployerName() { return employerName; }
@@ -1,47 +1,97 @@
 // entities/Customer.java
 package entities;
 
-import java.util.ArrayList;
+import utils.PinHasher;
+
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Customer {
     private final String firstName;
     private final String surname;
     private final String address;
     private final String accountNumber;
-    private String pin;
-    private final List<Account> accounts;
+    private volatile String pinHash; // see PinHasher
+    private final List<Account> accounts; // copy-on-write: read by the API and snapshots while accounts are opened
+    // Set while the accounts are still in the database; cleared on first access
+    private volatile AccountLoader accountLoader;
 
-    // Constructor
+    /**
+     * @param pin A new PIN, which is hashed, or a stored PIN hash, which is kept as is
+     */
     public Customer(String firstName, String surname, String address, String accountNumber, String pin) {
         this.firstName = firstName;
         this.surname = surname;
         this.address = address;
         this.accountNumber = accountNumber;
-        this.pin = pin;
-        this.accounts = new ArrayList<>();
+        this.pinHash = pin == null || PinHasher.isHash(pin) ? pin : PinHasher.hash(pin);
+        this.accounts = new CopyOnWriteArrayList<>();
     }
 
-    // Authentication
+    /**
+     * Checks the PIN in constant time. A PIN stored in plaintext or with an
+     * outdated cost is re-hashed after a successful check; getPinHash() then
+     * returns the new hash, which the caller saves (see CustomerLoginController).
+     */
     public boolean authenticate(String accNum, String pin) {
-        return this.accountNumber.equals(accNum) && this.pin.equals(pin);
+        if (!this.accountNumber.equals(accNum)) return false;
+        String stored = pinHash;
+        if (!PinHasher.verify(pin, stored)) return false;
+        if (PinHasher.needsRehash(stored)) {
+            synchronized (this) {
+                if (pinHash == stored) pinHash = PinHasher.hash(pin);
+            }
+        }
+        return true;
     }
 
     // Account management
     public void addAccount(Account account) {
+        loadAccounts();
         accounts.add(account);
     }
 
     public List<Account> getAccounts() {
+        loadAccounts();
         return accounts;
     }
 
+    /**
+     * Reads a customer's stored accounts on first use.
+     */
+    @FunctionalInterface
+    public interface AccountLoader {
+        List<Account> load(Customer customer);
+    }
+
+    /**
+     * Leaves the customer's accounts in the database until they are first asked for.
+     */
+    public void deferAccounts(AccountLoader loader) {
+        this.accountLoader = loader;
+    }
+
+    public boolean isAccountsLoaded() {
+        return accountLoader == null;
+    }
+
+    private void loadAccounts() {
+        if (accountLoader == null) return;
+        synchronized (this) {
+            AccountLoader loader = accountLoader;
+            if (loader == null) return;
+            accounts.addAll(loader.load(this));
+            accountLoader = null;
+        }
+    }
+
     // ----- Getters -----
     public String getFirstName() { return firstName; }
     public String getSurname() { return surname; }
     public String getAddress() { return address; }
     public String getAccountNumber() { return accountNumber; }
-    public String getPIN() { return pin; }
+    /** The stored PIN hash, never the PIN itself. */
+    public String getPinHash() { return pinHash; }
 
     // ----- Setters -----
 
@@ -54,7 +104,7 @@ public class Customer {
         if (pin == null || !pin.matches("\\d{4}")) {
             throw new IllegalArgumentException("PIN must be exactly 4 digits.");
         }
-        this.pin = pin;
+        this.pinHash = PinHasher.hash(pin);
     }
 
     // ----- toString -----
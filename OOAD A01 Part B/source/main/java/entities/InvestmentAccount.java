@@ -1,37 +1,39 @@
 // entities/InvestmentAccount.java
 package entities;
 
-import services.PersistenceService;
+import utils.Money;
 
 public class InvestmentAccount extends Account {
-    public static final double INTEREST_RATE = 0.05; // 5% monthly
+    public static final long INTEREST_RATE_PPM = 50_000; // 5% monthly
+    public static final long MINIMUM_DEPOSIT_CENTS = 500_00;
 
-    public InvestmentAccount(String branch, Customer customer, double initialDeposit) {
+    public InvestmentAccount(String branch, Customer customer, long initialDepositCents) {
         super(branch, customer);
-        if (initialDeposit < 500.0) {
+        if (initialDepositCents < MINIMUM_DEPOSIT_CENTS) {
             throw new IllegalArgumentException("Investment account requires minimum deposit of BWP 500.00.");
         }
-        deposit(initialDeposit); // Uses safe deposit → auto-saved
+        deposit(initialDepositCents); // Uses safe deposit → auto-saved
+    }
+
+    /**
+     * Restores an Investment Account loaded from the database (no minimum deposit check).
+     */
+    public InvestmentAccount(String accountNumber, String branch, Customer customer, long balanceCents) {
+        super(accountNumber, branch, customer, balanceCents);
     }
 
     @Override
-    public void withdraw(double amount) {
-        if (amount <= 0) throw new IllegalArgumentException("Amount must be positive.");
-        if (amount > balance) throw new IllegalStateException("Insufficient funds.");
-        balance -= amount;
-        Transaction t = new Transaction("Withdrawal", amount, balance);
-        transactionHistory.add(t);
+    public void withdraw(long amountCents) {
+        debit(amountCents);
+    }
 
-        // ✅ Save withdrawal immediately
-        new PersistenceService().saveTransaction(t, this.accountNumber);
+    @Override
+    public long applyInterest() {
+        return creditInterest();
     }
 
     @Override
-    public double applyInterest() {
-        double interest = balance * INTEREST_RATE;
-        if (interest > 0) {
-            logInterest(interest);
-        }
-        return interest;
+    public long calculateInterest() {
+        return Money.applyRate(balanceCents, INTEREST_RATE_PPM);
     }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package entities;
 
+import utils.Money;
+
 public class SavingsAccount extends Account {
-    public static final double INDIVIDUAL_RATE = 0.00025; // 0.025% monthly
-    public static final double COMPANY_RATE = 0.00075;   // 0.075% monthly
+    public static final long INDIVIDUAL_RATE_PPM = 250; // 0.025% monthly
+    public static final long COMPANY_RATE_PPM = 750;    // 0.075% monthly
     private boolean isCompanyAccount;
 
     public SavingsAccount(String branch, Customer customer, boolean isCompanyAccount) {
@@ -10,17 +12,33 @@ public class SavingsAccount extends Account {
         this.isCompanyAccount = isCompanyAccount;
     }
 
+    /**
+     * Restores a Savings Account loaded from the database.
+     */
+    public SavingsAccount(String accountNumber, String branch, Customer customer, boolean isCompanyAccount, long balanceCents) {
+        super(accountNumber, branch, customer, balanceCents);
+        this.isCompanyAccount = isCompanyAccount;
+    }
+
     @Override
-    public void withdraw(double amount) {
+    public void withdraw(long amountCents) {
         System.out.println("Withdrawal not allowed from Savings Account.");
     }
 
     @Override
-    public double applyInterest() {
-        double rate = isCompanyAccount ? COMPANY_RATE : INDIVIDUAL_RATE;
-        double interest = balance * rate;
-        logInterest(interest);
-        return interest;
+    protected boolean canDebit(long amountCents) {
+        return false; // no withdrawals, so no transfers out either
+    }
+
+    @Override
+    public long applyInterest() {
+        return creditInterest();
+    }
+
+    @Override
+    public long calculateInterest() {
+        long ratePpm = isCompanyAccount ? COMPANY_RATE_PPM : INDIVIDUAL_RATE_PPM;
+        return Money.applyRate(balanceCents, ratePpm);
     }
 
     public boolean isCompanyAccount() {
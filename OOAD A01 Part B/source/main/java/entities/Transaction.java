@@ -1,29 +1,41 @@
 package entities;
 
+import utils.Money;
+
 import java.time.LocalDateTime;
 
 public class Transaction {
-    private String type; // "Deposit", "Withdrawal", "Interest Credited"
-    private double amount;
+    private String type; // "Deposit", "Withdrawal", "Interest Credited", "Transfer Out", "Transfer In"
+    private long amountCents;
     private LocalDateTime timestamp;
-    private double balanceAfter;
+    private long balanceAfterCents;
 
-    public Transaction(String type, double amount, double balanceAfter) {
+    public Transaction(String type, long amountCents, long balanceAfterCents) {
         this.type = type;
-        this.amount = amount;
-        this.balanceAfter = balanceAfter;
+        this.amountCents = amountCents;
+        this.balanceAfterCents = balanceAfterCents;
         this.timestamp = LocalDateTime.now();
     }
 
+    /**
+     * Restores a transaction loaded from the database with its original timestamp.
+     */
+    public Transaction(String type, long amountCents, long balanceAfterCents, LocalDateTime timestamp) {
+        this.type = type;
+        this.amountCents = amountCents;
+        this.balanceAfterCents = balanceAfterCents;
+        this.timestamp = timestamp;
+    }
+
     @Override
     public String toString() {
-        return String.format("[%s] %s: %.2f BWP | Balance: %.2f BWP",
-                timestamp.toString(), type, amount, balanceAfter);
+        return String.format("[%s] %s: %s BWP | Balance: %s BWP",
+                timestamp.toString(), type, Money.format(amountCents), Money.format(balanceAfterCents));
     }
 
     // Getters
     public String getType() { return type; }
-    public double getAmount() { return amount; }
+    public long getAmountCents() { return amountCents; }
     public LocalDateTime getTimestamp() { return timestamp; }
-    public double getBalanceAfter() { return balanceAfter; }
-}
\ No newline at end of file
+    public long getBalanceAfterCents() { return balanceAfterCents; }
+}
@@ -0,0 +1,147 @@
+// entities/TransactionHistory.java
+package entities;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Append-only, column-oriented transaction history for one account.
+ * Each row is a type code, a timestamp in epoch microseconds and two amounts
+ * in cents, held in parallel primitive arrays (25 bytes per row).
+ * {@link Transaction} objects are only built when a row is read through get().
+ *
+ * One thread appends at a time (Account appends under its lock); any thread
+ * may read without it. A row is written before the size that covers it is
+ * published, and grown arrays before that, both through volatile fields, so
+ * a reader sees every row below the size it read, complete. Rows never change
+ * once written, and appends don't count as modifications: iterators and
+ * subLists keep working, and an iterator also sees rows appended meanwhile.
+ */
+public class TransactionHistory extends AbstractList<Transaction> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The column arrays, replaced as a whole when they grow.
+     */
+    private static final class Columns {
+        final byte[] types;
+        final long[] timestamps;
+        final long[] amounts;
+        final long[] balances;
+
+        Columns(byte[] types, long[] timestamps, long[] amounts, long[] balances) {
+            this.types = types;
+            this.timestamps = timestamps;
+            this.amounts = amounts;
+            this.balances = balances;
+        }
+    }
+
+    private volatile Columns columns = new Columns(new byte[0], new long[0], new long[0], new long[0]);
+    private volatile int size; // written after the rows it covers
+
+    /**
+     * Appends a row without creating a Transaction object (used when loading from the database).
+     */
+    public void append(TransactionType type, LocalDateTime timestamp, long amountCents, long balanceAfterCents) {
+        int n = size;
+        Columns c = ensureCapacity(n + 1);
+        c.types[n] = type.code();
+        c.timestamps[n] = toEpochMicros(timestamp);
+        c.amounts[n] = amountCents;
+        c.balances[n] = balanceAfterCents;
+        size = n + 1;
+    }
+
+    /**
+     * Appends the first count rows of whole columns at once (used when restoring a snapshot).
+     * An empty history adopts the arrays as-is when they are exactly count long.
+     */
+    public void appendColumns(byte[] types, long[] epochMicros, long[] amountsCents, long[] balancesAfterCents, int count) {
+        if (count == 0) return;
+        int n = size;
+        if (n == 0 && types.length == count && epochMicros.length == count
+                && amountsCents.length == count && balancesAfterCents.length == count) {
+            columns = new Columns(types, epochMicros, amountsCents, balancesAfterCents);
+        } else {
+            Columns c = ensureCapacity(n + count);
+            System.arraycopy(types, 0, c.types, n, count);
+            System.arraycopy(epochMicros, 0, c.timestamps, n, count);
+            System.arraycopy(amountsCents, 0, c.amounts, n, count);
+            System.arraycopy(balancesAfterCents, 0, c.balances, n, count);
+        }
+        size = n + count;
+    }
+
+    /**
+     * Appends every row of another history, e.g. one loaded in full before being added.
+     */
+    public void appendAll(TransactionHistory rows) {
+        int count = rows.size;
+        Columns c = rows.columns;
+        appendColumns(Arrays.copyOf(c.types, count), Arrays.copyOf(c.timestamps, count),
+                Arrays.copyOf(c.amounts, count), Arrays.copyOf(c.balances, count), count);
+    }
+
+    @Override
+    public boolean add(Transaction t) {
+        append(TransactionType.fromLabel(t.getType()), t.getTimestamp(), t.getAmountCents(), t.getBalanceAfterCents());
+        return true;
+    }
+
+    /**
+     * Builds a Transaction view of the row.
+     */
+    @Override
+    public Transaction get(int index) {
+        int n = size; // read before columns: they hold at least n rows
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + n);
+        }
+        Columns c = columns;
+        return new Transaction(
+                TransactionType.fromCode(c.types[index]).getLabel(),
+                c.amounts[index],
+                c.balances[index],
+                fromEpochMicros(c.timestamps[index]));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Column accessors for callers that don't need Transaction objects; index must be below a size() already read
+    public TransactionType getType(int index) { return TransactionType.fromCode(columns.types[index]); }
+    public byte getTypeCode(int index) { return columns.types[index]; }
+    public long getAmountCents(int index) { return columns.amounts[index]; }
+    public long getBalanceAfterCents(int index) { return columns.balances[index]; }
+    public long getEpochMicros(int index) { return columns.timestamps[index]; }
+
+    /**
+     * Returns columns with room for needed rows, publishing grown copies
+     * before the size that will cover the new rows.
+     */
+    private Columns ensureCapacity(int needed) {
+        Columns c = columns;
+        int length = c.types.length;
+        if (needed <= length) return c;
+        int capacity = Math.max(INITIAL_CAPACITY, Math.max(needed, length + (length >> 1)));
+        c = new Columns(Arrays.copyOf(c.types, capacity), Arrays.copyOf(c.timestamps, capacity),
+                Arrays.copyOf(c.amounts, capacity), Arrays.copyOf(c.balances, capacity));
+        columns = c;
+        return c;
+    }
+
+    private static long toEpochMicros(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + t.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
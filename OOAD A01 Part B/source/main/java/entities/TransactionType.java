@@ -0,0 +1,49 @@
+// entities/TransactionType.java
+package entities;
+
+/**
+ * Kinds of transaction, stored as a one-byte code in {@link TransactionHistory}.
+ */
+public enum TransactionType {
+    DEPOSIT("Deposit"),
+    WITHDRAWAL("Withdrawal"),
+    INTEREST("Interest Credited"),
+    TRANSFER_OUT("Transfer Out"),
+    TRANSFER_IN("Transfer In");
+
+    private static final TransactionType[] BY_CODE = values();
+
+    private final String label;
+
+    TransactionType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() { return label; }
+
+    /**
+     * Whether the transaction adds money to the account (deposits, interest, incoming transfers).
+     */
+    public boolean isCredit() {
+        return this != WITHDRAWAL && this != TRANSFER_OUT;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static TransactionType fromCode(byte code) {
+        return BY_CODE[code];
+    }
+
+    /**
+     * Maps the label used in the transactions table back to a type.
+     * @throws IllegalArgumentException for an unknown label
+     */
+    public static TransactionType fromLabel(String label) {
+        for (TransactionType type : BY_CODE) {
+            if (type.label.equals(label)) return type;
+        }
+        throw new IllegalArgumentException("Unknown transaction type: " + label);
+    }
+}
@@ -4,16 +4,24 @@ package gui;
 import controllers.HistoryViewController;
 import controllers.TransactionController;
 import entities.Account;
+import entities.Transaction;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import utils.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 public class CustomerDashboardScene {
     public final Stage stage = new Stage();
     private ComboBox<Account> accountCombo;
-    private ListView<String> historyView;
+    private ListView<Transaction> historyView;
+    private LiveHistoryList liveHistory; // Follows the selected account's new transactions
     private TransactionController txController;
     private entities.Customer customer;
     private CustomerLoginScene loginScene;
@@ -22,6 +30,7 @@ public class CustomerDashboardScene {
      * Sets the current customer and links back to login scene for logout.
      */
     public void setCustomer(entities.Customer customer, CustomerLoginScene loginScene) {
+        stopFollowingHistory();
         this.customer = customer;
         this.loginScene = loginScene;
         this.txController = new TransactionController(customer);
@@ -60,6 +69,9 @@ public class CustomerDashboardScene {
         Button withdrawBtn = new Button("Withdraw");
         withdrawBtn.setOnAction(e -> performTransaction(false));
 
+        Button transferBtn = new Button("Transfer");
+        transferBtn.setOnAction(e -> performTransfer());
+
         Button historyBtn = new Button("View History");
         historyBtn.setOnAction(e -> openHistoryViewer());
 
@@ -70,7 +82,7 @@ public class CustomerDashboardScene {
         logoutBtn.setStyle("-fx-background-color: #FF6B6B; -fx-text-fill: white; -fx-font-weight: bold;");
         logoutBtn.setOnAction(e -> confirmLogout());
 
-        left.getChildren().addAll(depositBtn, withdrawBtn, historyBtn, changePinBtn, logoutBtn);
+        left.getChildren().addAll(depositBtn, withdrawBtn, transferBtn, historyBtn, changePinBtn, logoutBtn);
         root.setLeft(left);
 
         // Right Panel: Transaction Preview
@@ -80,6 +92,7 @@ public class CustomerDashboardScene {
 
         historyView = new ListView<>();
         historyView.setMinWidth(350);
+        historyView.setCellFactory(lv -> new TransactionCell());
         right.getChildren().add(historyView);
 
         root.setCenter(right);
@@ -93,6 +106,7 @@ public class CustomerDashboardScene {
         stage.setScene(scene);
         stage.setTitle("Customer Dashboard");
         stage.setResizable(false);
+        stage.setOnHidden(e -> stopFollowingHistory());
     }
 
     /**
@@ -111,28 +125,87 @@ public class CustomerDashboardScene {
         dialog.setContentText("Amount:");
 
         dialog.showAndWait().ifPresent(amountStr -> {
+            long amount;
             try {
-                double amount = Double.parseDouble(amountStr.trim());
+                amount = Money.parse(amountStr);
                 if (amount <= 0) {
                     throw new IllegalArgumentException("Amount must be positive.");
                 }
-
-                if (isDeposit) {
-                    txController.deposit(selected, amount);
-                    showAlert("Success", String.format("Deposited %.2f BWP", amount), false);
-                } else {
-                    txController.withdraw(selected, amount);
-                    showAlert("Success", String.format("Withdrew %.2f BWP", amount), false);
-                }
-
-                // ✅ Refresh history after transaction
-                refreshHistory();
-
             } catch (IllegalArgumentException ex) {
                 showAlert("Invalid Input", ex.getMessage(), true);
-            } catch (IllegalStateException ex) {
-                showAlert("Action Not Allowed", ex.getMessage(), true);
+                return;
             }
+
+            // Saving blocks on the database, so run it off the FX thread
+            UiExecutor.submit(() -> {
+                if (isDeposit) txController.deposit(selected, amount);
+                else txController.withdraw(selected, amount);
+                return amount;
+            }, done -> {
+                // The new row reaches the history list through the account's transaction events
+                showAlert("Success", (isDeposit ? "Deposited " : "Withdrew ") + Money.format(done) + " BWP", false);
+            }, this::showFailure);
+        });
+    }
+
+    /**
+     * Shows why a background transaction failed.
+     */
+    private void showFailure(Throwable error) {
+        if (error instanceof IllegalArgumentException) {
+            showAlert("Invalid Input", error.getMessage(), true);
+        } else if (error instanceof IllegalStateException) {
+            showAlert("Action Not Allowed", error.getMessage(), true);
+        } else if (error instanceof TimeoutException) {
+            showAlert("Timed Out", "The bank is busy. Please check your balance before trying again.", true);
+        } else {
+            showAlert("Error", "Transaction failed: " + error.getMessage(), true);
+        }
+    }
+
+    /**
+     * Moves money from the selected account to another of the customer's accounts.
+     */
+    private void performTransfer() {
+        Account from = accountCombo.getValue();
+        if (from == null) {
+            showAlert("No Account", "Please select an account.", true);
+            return;
+        }
+        List<Account> targets = new ArrayList<>(txController.getAccounts());
+        targets.remove(from);
+        if (targets.isEmpty()) {
+            showAlert("No Account", "You need a second account to transfer to.", true);
+            return;
+        }
+
+        ChoiceDialog<Account> targetDialog = new ChoiceDialog<>(targets.get(0), targets);
+        targetDialog.setTitle("Transfer Funds");
+        targetDialog.setHeaderText("Transfer from " + from.getAccountNumber() + " to:");
+        targetDialog.setContentText("Account:");
+
+        targetDialog.showAndWait().ifPresent(to -> {
+            TextInputDialog dialog = new TextInputDialog();
+            dialog.setTitle("Transfer Funds");
+            dialog.setHeaderText("Enter amount in BWP:");
+            dialog.setContentText("Amount:");
+
+            dialog.showAndWait().ifPresent(amountStr -> {
+                long amount;
+                try {
+                    amount = Money.parse(amountStr);
+                } catch (IllegalArgumentException ex) {
+                    showAlert("Invalid Input", ex.getMessage(), true);
+                    return;
+                }
+
+                UiExecutor.submit(() -> {
+                    txController.transfer(from, to, amount);
+                    return amount;
+                }, done -> showAlert("Success",
+                        "Transferred " + Money.format(done) + " BWP to " + to.getAccountNumber(), false),
+                        this::showFailure);
+            });
         });
     }
 
@@ -192,17 +265,29 @@ public class CustomerDashboardScene {
     }
 
     /**
-     * Refreshes the transaction preview list.
+     * Shows the selected account's history. The list then follows the account,
+     * appending each new transaction and scrolling to it.
      */
     private void refreshHistory() {
+        stopFollowingHistory();
         Account selected = accountCombo.getValue();
         if (selected == null) {
-            historyView.getItems().clear();
-            historyView.getItems().add("No account selected.");
+            historyView.setItems(FXCollections.observableArrayList());
+            historyView.setPlaceholder(new Label("No account selected."));
             return;
         }
-        historyView.getItems().clear();
-        selected.getTransactionHistory().forEach(t -> historyView.getItems().add(t.toString()));
+        historyView.setPlaceholder(new Label("No transactions yet."));
+        LiveHistoryList rows = new LiveHistoryList(selected);
+        rows.addListener((ListChangeListener<Transaction>) change -> historyView.scrollTo(rows.size() - 1));
+        liveHistory = rows;
+        historyView.setItems(rows);
+    }
+
+    private void stopFollowingHistory() {
+        if (liveHistory != null) {
+            liveHistory.close();
+            liveHistory = null;
+        }
     }
 
     /**
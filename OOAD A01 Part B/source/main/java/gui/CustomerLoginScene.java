@@ -1,22 +1,22 @@
 // gui/CustomerLoginScene.java
 package gui;
 
+import controllers.CustomerLoginController;
 import entities.Customer;
+import services.CustomerRegistry;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.util.List;
-
 public class CustomerLoginScene {
     public final Stage stage;
-    private final List<Customer> customers;
+    private final CustomerLoginController loginController;
     private final CustomerDashboardScene dashboardScene;
     private final TellerLoginScene tellerLoginScene; // Reference to teller login
 
-    public CustomerLoginScene(List<Customer> customers, CustomerDashboardScene dashboardScene, TellerLoginScene tellerLoginScene) {
-        this.customers = customers;
+    public CustomerLoginScene(CustomerRegistry customers, CustomerDashboardScene dashboardScene, TellerLoginScene tellerLoginScene) {
+        this.loginController = new CustomerLoginController(customers);
         this.dashboardScene = dashboardScene;
         this.tellerLoginScene = tellerLoginScene;
         this.stage = new Stage();
@@ -46,11 +46,19 @@ public class CustomerLoginScene {
                 return;
             }
 
-            Customer customer = findCustomer(accNum);
-            if (customer != null && customer.authenticate(accNum, pin)) {
+            Customer customer;
+            try {
+                customer = loginController.login(accNum, pin);
+            } catch (IllegalStateException ex) { // too many logins in progress
+                showAlert("Failed", ex.getMessage(), true);
+                return;
+            }
+            if (customer != null) {
                 dashboardScene.setCustomer(customer, this);
                 stage.hide();
                 dashboardScene.show();
+            } else if (loginController.isLockedOut(accNum)) {
+                showAlert("Failed", "Too many failed attempts. Try again later.", true);
             } else {
                 showAlert("Failed", "Invalid credentials.", true);
             }
@@ -79,13 +87,6 @@ public class CustomerLoginScene {
         stage.setScene(scene);
     }
 
-    private Customer findCustomer(String accNum) {
-        return customers.stream()
-                .filter(c -> c.getAccountNumber().equals(accNum))
-                .findFirst()
-                .orElse(null);
-    }
-
     private void showAlert(String title, String message, boolean isError) {
         Alert alert = new Alert(isError ? Alert.AlertType.ERROR : Alert.AlertType.INFORMATION);
         DialogPane dp = alert.getDialogPane();
@@ -0,0 +1,68 @@
+// gui/LiveHistoryList.java
+package gui;
+
+import entities.Account;
+import entities.Transaction;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.List;
+
+/**
+ * Read-only list over an account's in-memory history that follows the account
+ * as transactions are added. Each new row is reported to the ListView as an
+ * addition at the end, so only the new cells are laid out instead of the whole
+ * list being replaced, and rows are only built and formatted when a cell shows them.
+ * Must be created and read on the FX thread; call close() when it is no longer shown.
+ * Rows are read without the account lock: TransactionHistory publishes each row
+ * before the size that covers it, and only rows already announced are read.
+ */
+class LiveHistoryList extends ObservableListBase<Transaction> implements Account.TransactionListener {
+    private final Account account;
+    private final List<Transaction> history;
+    private int size; // Rows announced so far; only touched on the FX thread
+
+    LiveHistoryList(Account account) {
+        this.account = account;
+        this.history = account.getTransactionHistory();
+        account.addTransactionListener(this); // Subscribe before reading the size so no row is missed
+        this.size = history.size();
+    }
+
+    /**
+     * Runs on the thread that added the transaction, with the account locked.
+     */
+    @Override
+    public void appended(Account account, Transaction transaction) {
+        int rows = history.size();
+        Platform.runLater(() -> growTo(rows));
+    }
+
+    private void growTo(int rows) {
+        if (rows <= size) return; // Already covered by a later notification or the initial size
+        beginChange();
+        nextAdd(size, rows);
+        size = rows;
+        endChange();
+    }
+
+    @Override
+    public Transaction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return history.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Stops following the account.
+     */
+    public void close() {
+        account.removeTransactionListener(this);
+    }
+}
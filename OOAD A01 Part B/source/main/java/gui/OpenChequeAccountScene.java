@@ -4,19 +4,18 @@ package gui;
 import controllers.OpenChequeAccountController;
 import entities.Customer;
 import services.BankTeller;
+import services.CustomerRegistry;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.util.List;
-
 public class OpenChequeAccountScene {
     private Stage stage = new Stage();
-    private List<Customer> customers;
+    private CustomerRegistry customers;
     private OpenChequeAccountController controller;
 
-    public OpenChequeAccountScene(List<Customer> customers, BankTeller bankTeller) {
+    public OpenChequeAccountScene(CustomerRegistry customers, BankTeller bankTeller) {
         this.customers = customers;
         this.controller = new OpenChequeAccountController(bankTeller);
     }
@@ -57,22 +56,29 @@ public class OpenChequeAccountScene {
                 return;
             }
 
-            Customer customer = findCustomer(accNum);
+            Customer customer = customers.find(accNum);
             if (customer == null) {
                 customer = new Customer("New", "Customer", "Gaborone", accNum, pin);
             } else {
-                if (customer.getPIN() == null || customer.getPIN().isEmpty()) {
+                if (customer.getPinHash() == null || customer.getPinHash().isEmpty()) {
                     customer.setPIN(pin);
                 }
             }
 
-            try {
-                controller.openAccount("Main Branch", customer, employer, address);
+            Customer owner = customer;
+            openBtn.setDisable(true);
+            UiExecutor.submit(() -> {
+                Customer kept = customers.register(owner); // Open on the customer the registry keeps
+                controller.openAccount("Main Branch", kept, employer, address);
+                return customers.register(kept); // Indexes the new account's branch
+            }, registered -> {
+                openBtn.setDisable(false);
                 showAlert("Success", "Cheque account opened successfully! Customer can now log in with PIN.", false);
                 clearForm(accNumField, employerField, addressField, pinField);
-            } catch (Exception ex) {
+            }, ex -> {
+                openBtn.setDisable(false);
                 showAlert("Error", "Failed to open account: " + ex.getMessage(), true);
-            }
+            });
         });
 
         root.getChildren().addAll(
@@ -91,13 +97,6 @@ public class OpenChequeAccountScene {
         stage.show();
     }
 
-    private Customer findCustomer(String accNum) {
-        return customers.stream()
-                .filter(c -> c.getAccountNumber().equals(accNum))
-                .findFirst()
-                .orElse(null);
-    }
-
     private void clearForm(TextField... fields) {
         for (TextField f : fields) f.clear();
     }
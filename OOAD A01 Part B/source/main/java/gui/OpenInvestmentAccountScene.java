@@ -4,19 +4,19 @@ package gui;
 import controllers.OpenInvestmentAccountController;
 import entities.Customer;
 import services.BankTeller;
+import services.CustomerRegistry;
+import utils.Money;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.util.List;
-
 public class OpenInvestmentAccountScene {
     private final Stage stage = new Stage();
-    private final List<Customer> customers;
+    private final CustomerRegistry customers;
     private final OpenInvestmentAccountController controller;
 
-    public OpenInvestmentAccountScene(List<Customer> customers, BankTeller bankTeller) {
+    public OpenInvestmentAccountScene(CustomerRegistry customers, BankTeller bankTeller) {
         this.customers = customers;
         this.controller = new OpenInvestmentAccountController(bankTeller);
     }
@@ -53,30 +53,40 @@ public class OpenInvestmentAccountScene {
                 return;
             }
 
-            double deposit;
+            long deposit;
             try {
-                deposit = Double.parseDouble(depositStr);
+                deposit = Money.parse(depositStr);
             } catch (NumberFormatException ex) {  // <-- Changed 'e' to 'ex'
                 showAlert("Invalid Amount", "Please enter a valid number.", true);
                 return;
+            } catch (IllegalArgumentException ex) {
+                showAlert("Invalid Amount", ex.getMessage(), true);
+                return;
             }
 
-            Customer customer = findCustomer(accNum);
+            Customer customer = customers.find(accNum);
             if (customer == null) {
                 customer = new Customer("New", "Customer", "Gaborone", accNum, pin);
             } else {
-                if (customer.getPIN() == null || customer.getPIN().isEmpty()) {
+                if (customer.getPinHash() == null || customer.getPinHash().isEmpty()) {
                     customer.setPIN(pin);
                 }
             }
 
-            try {
-                controller.openAccount("Main Branch", customer, deposit);
+            Customer owner = customer;
+            openBtn.setDisable(true);
+            UiExecutor.submit(() -> {
+                Customer kept = customers.register(owner); // Open on the customer the registry keeps
+                controller.openAccount("Main Branch", kept, deposit);
+                return customers.register(kept); // Indexes the new account's branch
+            }, registered -> {
+                openBtn.setDisable(false);
                 showAlert("Success", "Investment account opened successfully! Customer can now log in with PIN.", false);
                 clearForm(accNumField, depositField, pinField);
-            } catch (IllegalArgumentException ex) {
+            }, ex -> {
+                openBtn.setDisable(false);
                 showAlert("Error", ex.getMessage(), true);
-            }
+            });
         });
 
         root.getChildren().addAll(
@@ -94,13 +104,6 @@ public class OpenInvestmentAccountScene {
         stage.show();
     }
 
-    private Customer findCustomer(String accNum) {
-        return customers.stream()
-                .filter(c -> c.getAccountNumber().equals(accNum))
-                .findFirst()
-                .orElse(null);
-    }
-
     private void clearForm(TextField... fields) {
         for (TextField f : fields) f.clear();
     }
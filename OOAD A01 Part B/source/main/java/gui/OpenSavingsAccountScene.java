@@ -4,19 +4,18 @@ package gui;
 import controllers.OpenSavingsAccountController;
 import entities.Customer;
 import services.BankTeller;
+import services.CustomerRegistry;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.util.List;
-
 public class OpenSavingsAccountScene {
     private Stage stage = new Stage();
-    private List<Customer> customers;
+    private CustomerRegistry customers;
     private OpenSavingsAccountController controller;
 
-    public OpenSavingsAccountScene(List<Customer> customers, BankTeller bankTeller) {
+    public OpenSavingsAccountScene(CustomerRegistry customers, BankTeller bankTeller) {
         this.customers = customers;
         this.controller = new OpenSavingsAccountController(bankTeller);
     }
@@ -57,24 +56,31 @@ public class OpenSavingsAccountScene {
             boolean isCompany = company.isSelected();
 
             // Check if existing customer
-            Customer customer = findCustomer(accNum);
+            Customer customer = customers.find(accNum);
             if (customer == null) {
                 // Create new customer
                 customer = new Customer("New", "Customer", "Gaborone", accNum, pin);
             } else {
                 // Update PIN if not already set
-                if (customer.getPIN() == null || customer.getPIN().isEmpty()) {
+                if (customer.getPinHash() == null || customer.getPinHash().isEmpty()) {
                     customer.setPIN(pin);
                 }
             }
 
-            try {
-                controller.openAccount("Main Branch", customer, isCompany);
+            Customer owner = customer;
+            openBtn.setDisable(true);
+            UiExecutor.submit(() -> {
+                Customer kept = customers.register(owner); // Open on the customer the registry keeps
+                controller.openAccount("Main Branch", kept, isCompany);
+                return customers.register(kept); // Indexes the new account's branch
+            }, registered -> {
+                openBtn.setDisable(false);
                 showAlert("Success", "Savings account opened successfully! Customer can now log in with PIN.", false);
                 clearForm(accNumField, pinField);
-            } catch (Exception ex) {
+            }, ex -> {
+                openBtn.setDisable(false);
                 showAlert("Error", ex.getMessage(), true);
-            }
+            });
         });
 
         root.getChildren().addAll(
@@ -92,13 +98,6 @@ public class OpenSavingsAccountScene {
         stage.show();
     }
 
-    private Customer findCustomer(String accNum) {
-        return customers.stream()
-                .filter(c -> c.getAccountNumber().equals(accNum))
-                .findFirst()
-                .orElse(null);
-    }
-
     private void clearForm(TextField... fields) {
         for (TextField f : fields) f.clear();
     }
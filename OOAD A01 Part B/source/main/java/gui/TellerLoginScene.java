@@ -1,6 +1,7 @@
 // gui/TellerLoginScene.java
 package gui;
 
+import controllers.TellerLoginController;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
@@ -9,9 +10,11 @@ import javafx.stage.Stage;
 public class TellerLoginScene {
     public Stage stage;
     private TellerDashboardScene tellerDashboard;
+    private final TellerLoginController loginController;
 
-    public TellerLoginScene(TellerDashboardScene tellerDashboard) {
+    public TellerLoginScene(TellerDashboardScene tellerDashboard, TellerLoginController loginController) {
         this.tellerDashboard = tellerDashboard;
+        this.loginController = loginController;
         this.stage = new Stage();
         createUI();
     }
@@ -29,9 +32,19 @@ public class TellerLoginScene {
         Button loginButton = new Button("Login");
         loginButton.setOnAction(e -> {
             String pin = pinField.getText();
-            if ("1234".equals(pin)) { // Simple demo PIN
+            boolean valid;
+            try {
+                valid = loginController.login(pin);
+            } catch (IllegalStateException ex) { // too many logins in progress
+                showAlert("Access Denied", ex.getMessage(), true);
+                return;
+            }
+            if (valid) {
+                pinField.clear();
                 stage.hide();
                 tellerDashboard.show();
+            } else if (loginController.isLockedOut()) {
+                showAlert("Access Denied", "Too many failed attempts. Try again later.", true);
             } else {
                 showAlert("Access Denied", "Incorrect PIN.", true);
             }
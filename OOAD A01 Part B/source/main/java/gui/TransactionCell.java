@@ -0,0 +1,17 @@
+// gui/TransactionCell.java
+package gui;
+
+import entities.Transaction;
+import javafx.scene.control.ListCell;
+
+/**
+ * List cell that formats a transaction only when it scrolls into view.
+ */
+public class TransactionCell extends ListCell<Transaction> {
+
+    @Override
+    protected void updateItem(Transaction transaction, boolean empty) {
+        super.updateItem(transaction, empty);
+        setText(empty || transaction == null ? null : transaction.toString());
+    }
+}
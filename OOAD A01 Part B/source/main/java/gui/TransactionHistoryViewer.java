@@ -3,18 +3,48 @@ package gui;
 
 import controllers.HistoryViewController;
 import entities.Account;
+import entities.Transaction;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import services.StatementExporter;
+import services.TransactionPage;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * GUI Scene: Displays transaction history for a selected account.
  * Shows deposits, withdrawals, and "Interest Credited" entries.
+ * History is fetched a page at a time as the user scrolls towards the end.
+ * While open it listens to the account, and once the last page is shown new
+ * transactions are fetched and appended as they happen. Pages and the count
+ * are read in the background (see UiExecutor), and a burst of new
+ * transactions leads to one fetch rather than one per transaction.
  */
 public class TransactionHistoryViewer {
+    private static final int PREFETCH_MARGIN = 10; // Fetch the next page this many rows before the end
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(30);
+
     private Stage stage = new Stage();
     private HistoryViewController historyController;
+    private final ListView<Transaction> list = new ListView<>();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean(); // A newTransactions() call is on its way
+    private final Account.TransactionListener onAppended = (account, t) -> {
+        if (!refreshQueued.getAndSet(true)) Platform.runLater(this::newTransactions);
+    };
+    private Label header;
+    private String title;
+    private TransactionPage lastPage;
+    private boolean loading;
+    private boolean stale; // Transactions were added since the end of the history was last read
+    private boolean counting;
+    private boolean recount; // The count changed while it was being read
 
     /**
      * Creates a new transaction history viewer.
@@ -34,25 +64,126 @@ public class TransactionHistoryViewer {
         root.setPadding(new javafx.geometry.Insets(15));
 
         // Header with account number
-        Label header = new Label("Transaction History – " + historyController.getSelectedAccount().getAccountNumber());
+        title = "Transaction History – " + historyController.getSelectedAccount().getAccountNumber();
+        header = new Label(title);
         header.getStyleClass().add("header-panel");
+        updateHeader();
 
-        // List view for transactions
-        ListView<String> list = new ListView<>();
-        historyController.getTransactionHistory().forEach(t -> list.getItems().add(t.toString()));
+        // List view for transactions: rows are formatted only when visible
+        list.setPlaceholder(new Label("No transactions yet."));
+        list.setCellFactory(lv -> new TransactionCell() {
+            @Override
+            protected void updateItem(Transaction transaction, boolean empty) {
+                super.updateItem(transaction, empty);
+                if (!empty && getIndex() >= list.getItems().size() - PREFETCH_MARGIN) {
+                    Platform.runLater(TransactionHistoryViewer.this::loadNextPage);
+                }
+            }
+        });
+        loadNextPage();
 
-        // Close button
+        // Buttons
+        Button exportBtn = new Button("Export Statement");
+        exportBtn.setOnAction(e -> exportStatement(exportBtn));
         Button closeBtn = new Button("Close");
         closeBtn.setOnAction(e -> stage.close());
 
         // Layout
-        root.getChildren().addAll(header, list, closeBtn);
+        root.getChildren().addAll(header, list, new HBox(10, exportBtn, closeBtn));
 
         // Scene setup
         Scene scene = new Scene(root, 500, 400);
         scene.getStylesheets().add("/styles.css");
         stage.setScene(scene);
         stage.setTitle("Transaction History");
+        stage.setOnHidden(e -> historyController.getSelectedAccount().removeTransactionListener(onAppended));
+        historyController.getSelectedAccount().addTransactionListener(onAppended);
         stage.show();
     }
+
+    /**
+     * Saves the full history as CSV or text, streamed from the database in the background.
+     */
+    private void exportStatement(Button exportBtn) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Statement");
+        chooser.setInitialFileName(historyController.getSelectedAccount().getAccountNumber() + ".csv");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv"),
+                new FileChooser.ExtensionFilter("Text statement (*.txt)", "*.txt"));
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) return;
+        StatementExporter.Format format = file.getName().toLowerCase().endsWith(".txt")
+                ? StatementExporter.Format.FIXED_WIDTH : StatementExporter.Format.CSV;
+
+        exportBtn.setDisable(true);
+        UiExecutor.submit(() -> historyController.exportStatement(file.toPath(), format, null, null), EXPORT_TIMEOUT,
+                result -> {
+                    exportBtn.setDisable(false);
+                    showAlert(Alert.AlertType.INFORMATION, "Exported " + result.getRows() + " transactions to " + file);
+                }, error -> {
+                    exportBtn.setDisable(false);
+                    showAlert(Alert.AlertType.ERROR, "Export failed: " + error.getMessage());
+                });
+    }
+
+    private void showAlert(Alert.AlertType type, String message) {
+        Alert alert = new Alert(type, message);
+        alert.setHeaderText(null);
+        alert.initOwner(stage);
+        alert.showAndWait();
+    }
+
+    /**
+     * Counts the stored transactions in the background and shows the count;
+     * asking again while a count is running reads it once more afterwards.
+     */
+    private void updateHeader() {
+        if (counting) {
+            recount = true;
+            return;
+        }
+        counting = true;
+        UiExecutor.submit(historyController::getTransactionCount, count -> {
+            header.setText(title + " (" + count + " transactions)");
+            counting = false;
+            if (recount) {
+                recount = false;
+                updateHeader();
+            }
+        }, error -> counting = false);
+    }
+
+    /**
+     * Fetches new transactions right away if the end of the history is showing;
+     * otherwise they arrive with the remaining pages.
+     */
+    private void newTransactions() {
+        refreshQueued.set(false); // Later transactions queue another call
+        stale = true;
+        if (lastPage != null && !lastPage.hasMore()) loadNextPage();
+    }
+
+    /**
+     * Appends the next page of history, if there is one, or anything added
+     * after the last page once transactions have come in.
+     */
+    private void loadNextPage() {
+        boolean atEnd = lastPage != null && !lastPage.hasMore();
+        if (loading || (atEnd && !stale)) return;
+        loading = true;
+        if (atEnd) stale = false; // Reading past the end flushes the journal, so this catches up fully
+        TransactionPage after = lastPage;
+        UiExecutor.submit(() -> historyController.getHistoryPage(after), page -> {
+            lastPage = page;
+            list.getItems().addAll(page.getTransactions());
+            loading = false;
+            if (atEnd && !page.getTransactions().isEmpty()) updateHeader();
+            if (!page.hasMore() && stale) loadNextPage(); // Transactions came in while this page loaded
+        }, error -> {
+            loading = false;
+            if (atEnd) stale = true; // Try again with the next transaction
+            list.setPlaceholder(new Label("Could not load transactions: " + error.getMessage()));
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+// gui/UiExecutor.java
+package gui;
+
+import javafx.application.Platform;
+import utils.VirtualThreads;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Runs blocking controller calls (SQLite, journal waits) off the JavaFX thread.
+ * Uses a virtual thread per task when the running JDK has them (21+), otherwise
+ * a small pool of daemon threads. Callbacks always run on the FX thread.
+ * Each call has a timeout; on timeout, or if the returned future is cancelled,
+ * its result is dropped. The worker is never interrupted: a deposit or
+ * withdrawal stopped halfway could change the balance without saving the row.
+ */
+public final class UiExecutor {
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(Long.getLong("banking.ui.timeoutSeconds", 15));
+    private static final ExecutorService WORKERS =
+            VirtualThreads.newExecutor("ui-worker", Integer.getInteger("banking.ui.workers", 8));
+
+    private UiExecutor() {
+    }
+
+    /**
+     * Runs work in the background with the default timeout.
+     * @param onSuccess Receives the result on the FX thread
+     * @param onFailure Receives the exception (or a TimeoutException) on the FX thread
+     * @return Future that can be cancelled; a cancelled call reports nothing
+     */
+    public static <T> CompletableFuture<T> submit(Callable<T> work, Consumer<? super T> onSuccess,
+                                                  Consumer<? super Throwable> onFailure) {
+        return submit(work, DEFAULT_TIMEOUT, onSuccess, onFailure);
+    }
+
+    public static <T> CompletableFuture<T> submit(Callable<T> work, Duration timeout, Consumer<? super T> onSuccess,
+                                                  Consumer<? super Throwable> onFailure) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = WORKERS.submit(() -> {
+            try {
+                result.complete(work.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                task.cancel(false); // Only drops it if it hasn't started
+            }
+            if (error instanceof CancellationException) return;
+            Platform.runLater(() -> {
+                if (error == null) onSuccess.accept(value);
+                else onFailure.accept(error);
+            });
+        });
+        return result;
+    }
+
+    /**
+     * True if tasks run on virtual threads.
+     */
+    public static boolean usesVirtualThreads() {
+        return VirtualThreads.isVirtual(WORKERS);
+    }
+
+    /**
+     * Stops accepting work and waits, up to the default timeout, for calls
+     * already running to finish, so their rows reach the journal before it closes.
+     */
+    public static void shutdown() {
+        WORKERS.shutdown();
+        try {
+            WORKERS.awaitTermination(DEFAULT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
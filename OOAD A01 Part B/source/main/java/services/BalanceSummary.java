@@ -0,0 +1,64 @@
+// services/BalanceSummary.java
+package services;
+
+import utils.Money;
+
+import java.time.LocalDate;
+
+/**
+ * One account's opening and closing balance and money in and out over a period:
+ * a single day, a month, or a statement range. Credits include interest, which
+ * is also reported on its own.
+ */
+public class BalanceSummary {
+    private final String accountNumber;
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+    private final long openingCents;
+    private final long closingCents;
+    private final long creditsCents;
+    private final long debitsCents;
+    private final long interestCents;
+    private final int transactionCount;
+
+    public BalanceSummary(String accountNumber, LocalDate firstDay, LocalDate lastDay,
+                          long openingCents, long closingCents, long creditsCents, long debitsCents,
+                          long interestCents, int transactionCount) {
+        this.accountNumber = accountNumber;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.openingCents = openingCents;
+        this.closingCents = closingCents;
+        this.creditsCents = creditsCents;
+        this.debitsCents = debitsCents;
+        this.interestCents = interestCents;
+        this.transactionCount = transactionCount;
+    }
+
+    /**
+     * Joins this period with the one that directly follows it.
+     */
+    BalanceSummary followedBy(BalanceSummary later) {
+        return new BalanceSummary(accountNumber, firstDay, later.lastDay, openingCents, later.closingCents,
+                creditsCents + later.creditsCents, debitsCents + later.debitsCents,
+                interestCents + later.interestCents, transactionCount + later.transactionCount);
+    }
+
+    public String getAccountNumber() { return accountNumber; }
+    public LocalDate getFirstDay() { return firstDay; }
+    public LocalDate getLastDay() { return lastDay; }
+    public long getOpeningCents() { return openingCents; }
+    public long getClosingCents() { return closingCents; }
+    public long getCreditsCents() { return creditsCents; }
+    public long getDebitsCents() { return debitsCents; }
+    public long getInterestCents() { return interestCents; }
+    public int getTransactionCount() { return transactionCount; }
+
+    @Override
+    public String toString() {
+        String period = firstDay.equals(lastDay) ? firstDay.toString() : firstDay + " to " + lastDay;
+        return String.format("%s %s: opening %s, credits %s (interest %s), debits %s, closing %s BWP (%d transactions)",
+                accountNumber, period, Money.format(openingCents), Money.format(creditsCents),
+                Money.format(interestCents), Money.format(debitsCents), Money.format(closingCents), transactionCount);
+    }
+}
@@ -11,8 +11,8 @@ public class BankTeller {
         return account;
     }
 
-    public InvestmentAccount openInvestmentAccount(String branch, Customer customer, double initialDeposit) {
-        InvestmentAccount account = new InvestmentAccount(branch, customer, initialDeposit);
+    public InvestmentAccount openInvestmentAccount(String branch, Customer customer, long initialDepositCents) {
+        InvestmentAccount account = new InvestmentAccount(branch, customer, initialDepositCents);
         customer.addAccount(account);
         System.out.println("Investment Account opened: " + account.getAccountNumber());
         return account;
@@ -0,0 +1,328 @@
+// services/CustomerRegistry.java
+package services;
+
+import entities.Account;
+import entities.Customer;
+import utils.SegmentedLruCache;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Shared, thread-safe index of customers.
+ * Primary lookup is by customer account number; secondary indexes cover
+ * surname prefix and branch so teller searches don't scan every customer.
+ *
+ * In bounded mode the registry holds only a size-limited cache of customers
+ * (with their accounts; histories are read on first use) and reads the rest
+ * through from SQLite one customer at a time; searches go to the database indexes.
+ * In deferred mode every customer is registered but their accounts and history
+ * are read on first use, optionally ahead of time by a {@link LedgerPrefetcher}.
+ */
+public class CustomerRegistry {
+    // Rough heap cost used to weigh cached customers
+    private static final long CUSTOMER_BYTES = 256;
+    private static final long ACCOUNT_BYTES = 256;
+    private static final long TRANSACTION_BYTES = 32;
+
+    private final ConcurrentHashMap<String, Customer> byAccountNumber = new ConcurrentHashMap<>();
+    // Key: lower-case surname + '\0' + account number, so equal surnames don't collide
+    private final ConcurrentSkipListMap<String, Customer> bySurname = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Set<Customer>> byBranch = new ConcurrentHashMap<>();
+
+    private final boolean deferred;
+    private final LedgerPrefetcher prefetcher;
+
+    // Bounded and deferred modes only
+    private final PersistenceService store;
+    // Bounded mode only (null otherwise)
+    private final SegmentedLruCache<String, Customer> cache;
+    // Every customer object handed out and still reachable, so a customer evicted
+    // while a session still holds it is reused instead of loaded a second time
+    private final ConcurrentHashMap<String, CustomerRef> live = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Customer> cleared = new ReferenceQueue<>();
+
+    public CustomerRegistry() {
+        this(null, false, null);
+    }
+
+    public CustomerRegistry(Collection<Customer> customers) {
+        this();
+        customers.forEach(this::register);
+    }
+
+    private CustomerRegistry(PersistenceService store, boolean deferred, LedgerPrefetcher prefetcher) {
+        this.store = store;
+        this.cache = null;
+        this.deferred = deferred;
+        this.prefetcher = prefetcher;
+    }
+
+    /**
+     * Bounded, read-through registry.
+     * @param maxBytes Approximate heap the cached customers may use
+     */
+    public CustomerRegistry(PersistenceService store, long maxBytes) {
+        this.deferred = true;
+        this.prefetcher = "off".equals(prefetchMode()) ? null : new LedgerPrefetcher();
+        this.store = store;
+        this.cache = new SegmentedLruCache<>("cache.customers", maxBytes, 64,
+                CustomerRegistry::estimateBytes, this::onEvicted);
+    }
+
+    /**
+     * Registry for the application:
+     * bounded if -Dbanking.cache.maxMegabytes is set;
+     * deferred if -Dbanking.load.deferred=true (only the customers table is read
+     * at start; -Dbanking.load.prefetch=off|login|all, default login);
+     * otherwise every customer loaded up front (from the snapshot plus newer rows).
+     */
+    public static CustomerRegistry open(PersistenceService store, Path snapshotFile) {
+        long maxMegabytes = Long.getLong("banking.cache.maxMegabytes", 0);
+        if (maxMegabytes > 0) {
+            return new CustomerRegistry(store, maxMegabytes * 1024 * 1024);
+        }
+        if (Boolean.getBoolean("banking.load.deferred")) {
+            String mode = prefetchMode();
+            CustomerRegistry registry = new CustomerRegistry(store, true,
+                    mode.equals("off") ? null : new LedgerPrefetcher());
+            List<Customer> customers = store.loadAllCustomersDeferred();
+            customers.forEach(registry::register);
+            if (mode.equals("all")) registry.prefetcher.prefetchAll(customers);
+            return registry;
+        }
+        return new CustomerRegistry(store.loadAllCustomers(snapshotFile));
+    }
+
+    private static String prefetchMode() {
+        return System.getProperty("banking.load.prefetch", "login").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a customer, or re-indexes one already registered (e.g. after opening
+     * an account at a new branch).
+     * @return The registered customer for that account number
+     */
+    public Customer register(Customer customer) {
+        if (cache != null) {
+            return registerBounded(customer);
+        }
+        Customer existing = byAccountNumber.putIfAbsent(customer.getAccountNumber(), customer);
+        Customer registered = existing != null ? existing : customer;
+
+        bySurname.put(surnameKey(registered), registered);
+        if (!registered.isAccountsLoaded()) return registered; // deferred: findByBranch asks SQLite
+        for (Account account : registered.getAccounts()) {
+            if (account.getBranch() != null) {
+                byBranch.computeIfAbsent(account.getBranch(), b -> ConcurrentHashMap.newKeySet()).add(registered);
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * Finds a customer by account number in O(1).
+     * @return The customer, or null if not registered
+     */
+    public Customer find(String accountNumber) {
+        if (accountNumber == null) return null;
+        if (cache == null) return byAccountNumber.get(accountNumber);
+        Customer cached = cache.getIfPresent(accountNumber);
+        if (cached != null) return cached;
+        // Rows still queued for an evicted copy must be in SQLite before it is read back.
+        // Flushed here, not in the loader, so other keys in the shard don't wait on a group commit.
+        TransactionJournal.flushShared();
+        return cache.get(accountNumber, this::loadCustomer);
+    }
+
+    /**
+     * Finds customers whose surname starts with the prefix (case-insensitive), ordered by surname.
+     */
+    public List<Customer> findBySurnamePrefix(String prefix) {
+        if (cache != null) return findAll(store.findCustomerNumbersBySurnamePrefix(prefix));
+        String from = prefix.toLowerCase(Locale.ROOT);
+        ConcurrentNavigableMap<String, Customer> range = bySurname.subMap(from, true, from + Character.MAX_VALUE, true);
+        return new ArrayList<>(range.values());
+    }
+
+    /**
+     * Customers holding at least one account at the branch.
+     */
+    public Set<Customer> findByBranch(String branch) {
+        if (cache != null) {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(findAll(store.findCustomerNumbersByBranch(branch))));
+        }
+        Set<Customer> customers = byBranch.get(branch);
+        if (deferred) {
+            Set<Customer> merged = new LinkedHashSet<>(customers == null ? Set.of() : customers);
+            for (String accountNumber : store.findCustomerNumbersByBranch(branch)) {
+                Customer c = byAccountNumber.get(accountNumber);
+                if (c != null) merged.add(c);
+            }
+            return Collections.unmodifiableSet(merged);
+        }
+        return customers == null ? Set.of() : Collections.unmodifiableSet(customers);
+    }
+
+    /**
+     * Customers held in memory: all of them, or in bounded mode only those
+     * currently cached (use {@link #forEach} to visit the whole bank).
+     */
+    public Collection<Customer> all() {
+        if (cache != null) return Collections.unmodifiableList(cache.values());
+        return Collections.unmodifiableCollection(byAccountNumber.values());
+    }
+
+    /**
+     * Visits every customer in the bank; in bounded mode they are read through
+     * the cache one at a time.
+     */
+    public void forEach(Consumer<Customer> action) {
+        if (cache == null) {
+            byAccountNumber.values().forEach(action);
+            return;
+        }
+        for (String accountNumber : store.loadCustomerNumbers()) {
+            Customer c = find(accountNumber);
+            if (c != null) action.accept(c);
+        }
+    }
+
+    public int size() {
+        if (cache != null) return store.countCustomers();
+        return byAccountNumber.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean isBounded() {
+        return cache != null;
+    }
+
+    /**
+     * False in bounded or deferred mode, where some of the bank is still only in
+     * SQLite and walking all() or every history would read it in.
+     */
+    public boolean isFullyLoaded() {
+        return !deferred;
+    }
+
+    /**
+     * Starts reading a customer's accounts and history in the background (after
+     * a login, say). Does nothing unless the registry defers loading.
+     */
+    public void prefetch(Customer customer) {
+        if (prefetcher != null && customer != null) prefetcher.prefetch(customer);
+    }
+
+    public void shutdown() {
+        if (prefetcher != null) prefetcher.shutdown();
+    }
+
+    /**
+     * Hit/miss/eviction figures for bounded mode, or null.
+     */
+    public String getCacheStats() {
+        return cache == null ? null : cache.toString();
+    }
+
+    /**
+     * New customers (or new accounts) are saved straight away in bounded mode,
+     * since the only other copy may be evicted before the next save.
+     */
+    private Customer registerBounded(Customer customer) {
+        String accountNumber = customer.getAccountNumber();
+        Customer registered = find(accountNumber);
+        if (registered == null) {
+            // Concurrent registrations of the same new customer agree on the first one
+            Customer[] winner = {customer};
+            live.compute(accountNumber, (k, ref) -> {
+                Customer held = ref == null ? null : ref.get();
+                if (held == null) return new CustomerRef(customer, cleared);
+                winner[0] = held;
+                return ref;
+            });
+            registered = winner[0];
+            cache.put(accountNumber, registered);
+        }
+        store.saveCustomer(registered);
+        return registered;
+    }
+
+    /**
+     * Cache miss: reuse the customer if some caller still holds it, else read it from SQLite.
+     * Runs under the shard lock; {@link #find} has already flushed the journal.
+     */
+    private Customer loadCustomer(String accountNumber) {
+        purgeCleared();
+        CustomerRef ref = live.get(accountNumber);
+        Customer customer = ref == null ? null : ref.get();
+        if (customer != null) return customer;
+
+        customer = store.loadCustomer(accountNumber);
+        if (customer != null) live.put(accountNumber, new CustomerRef(customer, cleared));
+        return customer;
+    }
+
+    private void onEvicted(Customer customer) {
+        if (!customer.isAccountsLoaded()) return; // nothing read, so nothing changed
+        for (Account account : customer.getAccounts()) {
+            if (account.isDirty()) {
+                store.saveCustomer(customer);
+                return;
+            }
+        }
+    }
+
+    private List<Customer> findAll(List<String> accountNumbers) {
+        List<Customer> customers = new ArrayList<>(accountNumbers.size());
+        for (String accountNumber : accountNumbers) {
+            Customer c = find(accountNumber);
+            if (c != null) customers.add(c);
+        }
+        return customers;
+    }
+
+    private void purgeCleared() {
+        CustomerRef ref;
+        while ((ref = (CustomerRef) cleared.poll()) != null) {
+            live.remove(ref.accountNumber, ref);
+        }
+    }
+
+    private static long estimateBytes(Customer c) {
+        long bytes = CUSTOMER_BYTES;
+        for (Account a : c.getAccounts()) {
+            bytes += ACCOUNT_BYTES;
+            if (a.isHistoryLoaded()) bytes += TRANSACTION_BYTES * a.getTransactionHistory().size();
+        }
+        return bytes;
+    }
+
+    private static final class CustomerRef extends WeakReference<Customer> {
+        final String accountNumber;
+
+        CustomerRef(Customer customer, ReferenceQueue<Customer> queue) {
+            super(customer, queue);
+            this.accountNumber = customer.getAccountNumber();
+        }
+    }
+
+    private static String surnameKey(Customer c) {
+        return c.getSurname().toLowerCase(Locale.ROOT) + '\0' + c.getAccountNumber();
+    }
+}
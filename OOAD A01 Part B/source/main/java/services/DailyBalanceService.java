@@ -0,0 +1,357 @@
+// services/DailyBalanceService.java
+package services;
+
+import entities.Transaction;
+import entities.TransactionType;
+import utils.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Per-account daily balance summaries in the daily_balances table.
+ * Every batch of transactions written by {@link PersistenceService} is folded
+ * in, in the same SQLite transaction, as one upsert per account and day, so
+ * statements and month-end reports read a row per day instead of walking the
+ * account's transactions. Days without transactions have no row; the balance
+ * simply carries over.
+ * Databases that had transactions before the table existed are summarised once
+ * with {@link #rebuild(int)} (see tools.DailyBalanceBackfill).
+ */
+public class DailyBalanceService {
+    private static final String UPSERT = """
+            INSERT INTO daily_balances (accountNumber, day, openingCents, closingCents, creditsCents, debitsCents,
+                                        interestCents, transactionCount, firstTimestamp, lastTimestamp)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (accountNumber, day) DO UPDATE SET
+                openingCents = CASE WHEN excluded.firstTimestamp < firstTimestamp
+                                    THEN excluded.openingCents ELSE openingCents END,
+                closingCents = CASE WHEN excluded.lastTimestamp >= lastTimestamp
+                                    THEN excluded.closingCents ELSE closingCents END,
+                creditsCents = creditsCents + excluded.creditsCents,
+                debitsCents = debitsCents + excluded.debitsCents,
+                interestCents = interestCents + excluded.interestCents,
+                transactionCount = transactionCount + excluded.transactionCount,
+                firstTimestamp = MIN(firstTimestamp, excluded.firstTimestamp),
+                lastTimestamp = MAX(lastTimestamp, excluded.lastTimestamp)
+            """;
+
+    // Labels as stored in transactions.type, for the backfill query
+    private static final String DEBIT_TYPES = Arrays.stream(TransactionType.values())
+            .filter(type -> !type.isCredit())
+            .map(type -> "'" + type.getLabel() + "'")
+            .collect(Collectors.joining(", "));
+
+    private static final String REBUILD = """
+            INSERT INTO daily_balances (accountNumber, day, openingCents, closingCents, creditsCents, debitsCents,
+                                        interestCents, transactionCount, firstTimestamp, lastTimestamp)
+            SELECT accountNumber, day,
+                   MAX(CASE WHEN firstRow = 1 THEN balanceAfterCents - signedCents END),
+                   MAX(CASE WHEN lastRow = 1 THEN balanceAfterCents END),
+                   SUM(CASE WHEN signedCents >= 0 THEN amountCents ELSE 0 END),
+                   SUM(CASE WHEN signedCents < 0 THEN amountCents ELSE 0 END),
+                   SUM(CASE WHEN type = '%s' THEN amountCents ELSE 0 END),
+                   COUNT(*), MIN(timestamp), MAX(timestamp)
+            FROM (SELECT accountNumber, substr(timestamp, 1, 10) AS day, type, amountCents, balanceAfterCents, timestamp,
+                         CASE WHEN type IN (%s) THEN -amountCents ELSE amountCents END AS signedCents,
+                         ROW_NUMBER() OVER (PARTITION BY accountNumber, substr(timestamp, 1, 10)
+                                            ORDER BY timestamp, id) AS firstRow,
+                         ROW_NUMBER() OVER (PARTITION BY accountNumber, substr(timestamp, 1, 10)
+                                            ORDER BY timestamp DESC, id DESC) AS lastRow
+                  FROM transactions
+                  WHERE accountNumber > ? AND (? IS NULL OR accountNumber <= ?)
+                    AND (? IS NULL OR timestamp >= ?))
+            GROUP BY accountNumber, day
+            """.formatted(TransactionType.INTEREST.getLabel(), DEBIT_TYPES);
+
+    /** One account's activity on one day within a batch being written. */
+    private static final class DayTotals {
+        final String accountNumber;
+        final String day;
+        LocalDateTime first;
+        LocalDateTime last;
+        long openingCents;
+        long closingCents;
+        long creditsCents;
+        long debitsCents;
+        long interestCents;
+        int count;
+
+        DayTotals(String accountNumber, String day, Transaction t) {
+            this.accountNumber = accountNumber;
+            this.day = day;
+            this.first = t.getTimestamp();
+            this.last = t.getTimestamp();
+            this.openingCents = balanceBefore(t);
+        }
+
+        void add(Transaction t) {
+            TransactionType type = TransactionType.fromLabel(t.getType());
+            if (type.isCredit()) creditsCents += t.getAmountCents();
+            else debitsCents += t.getAmountCents();
+            if (type == TransactionType.INTEREST) interestCents += t.getAmountCents();
+            if (t.getTimestamp().isBefore(first)) {
+                first = t.getTimestamp();
+                openingCents = balanceBefore(t);
+            }
+            if (!t.getTimestamp().isBefore(last)) { // Rows of one account arrive in order; ties go to the later row
+                last = t.getTimestamp();
+                closingCents = t.getBalanceAfterCents();
+            }
+            count++;
+        }
+
+        private static long balanceBefore(Transaction t) {
+            boolean credit = TransactionType.fromLabel(t.getType()).isCredit();
+            return t.getBalanceAfterCents() + (credit ? -t.getAmountCents() : t.getAmountCents());
+        }
+    }
+
+    /**
+     * Folds written transactions into daily_balances on the caller's connection,
+     * without committing. Called by PersistenceService for every insert.
+     */
+    static void record(Connection conn, List<TransactionJournal.Entry> entries) throws SQLException {
+        Map<String, DayTotals> days = new LinkedHashMap<>();
+        for (TransactionJournal.Entry entry : entries) {
+            Transaction t = entry.transaction;
+            String day = t.getTimestamp().toLocalDate().toString();
+            days.computeIfAbsent(entry.accountNumber + ' ' + day, k -> new DayTotals(entry.accountNumber, day, t))
+                    .add(t);
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT)) {
+            for (DayTotals d : days.values()) {
+                pstmt.setString(1, d.accountNumber);
+                pstmt.setString(2, d.day);
+                pstmt.setLong(3, d.openingCents);
+                pstmt.setLong(4, d.closingCents);
+                pstmt.setLong(5, d.creditsCents);
+                pstmt.setLong(6, d.debitsCents);
+                pstmt.setLong(7, d.interestCents);
+                pstmt.setInt(8, d.count);
+                pstmt.setString(9, d.first.toString());
+                pstmt.setString(10, d.last.toString());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Gets an account's days with transactions between from and to (inclusive), oldest first.
+     */
+    public List<BalanceSummary> getDailyBalances(String accountNumber, LocalDate from, LocalDate to) {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            return loadDays(conn, accountNumber, from, to);
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load daily balances: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Gets an account's months with transactions between from and to (inclusive), oldest first.
+     */
+    public List<BalanceSummary> getMonthlyBalances(String accountNumber, YearMonth from, YearMonth to) {
+        List<BalanceSummary> months = new ArrayList<>();
+        List<BalanceSummary> monthDays = new ArrayList<>();
+        for (BalanceSummary day : getDailyBalances(accountNumber, from.atDay(1), to.atEndOfMonth())) {
+            if (!monthDays.isEmpty() && !YearMonth.from(day.getFirstDay()).equals(YearMonth.from(monthDays.get(0).getFirstDay()))) {
+                months.add(rollUpMonth(monthDays));
+                monthDays.clear();
+            }
+            monthDays.add(day);
+        }
+        if (!monthDays.isEmpty()) months.add(rollUpMonth(monthDays));
+        return months;
+    }
+
+    /**
+     * Summarises an account over a statement range: the opening balance is the
+     * balance at the end of the last active day before from, the closing balance
+     * the one at the end of the last active day up to to.
+     */
+    public BalanceSummary getPeriodSummary(String accountNumber, LocalDate from, LocalDate to) {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            List<BalanceSummary> days = loadDays(conn, accountNumber, from, to);
+            Long before = closingBefore(conn, accountNumber, from);
+            if (days.isEmpty()) {
+                long balance = before == null ? 0 : before;
+                return new BalanceSummary(accountNumber, from, to, balance, balance, 0, 0, 0, 0);
+            }
+            BalanceSummary total = days.get(0);
+            for (int i = 1; i < days.size(); i++) total = total.followedBy(days.get(i));
+            return new BalanceSummary(accountNumber, from, to,
+                    before == null ? total.getOpeningCents() : before, total.getClosingCents(),
+                    total.getCreditsCents(), total.getDebitsCents(), total.getInterestCents(), total.getTransactionCount());
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to summarise account " + accountNumber + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Summarises every account with transactions in the month, in account number order.
+     */
+    public List<BalanceSummary> getMonthEndReport(YearMonth month) {
+        String sql = """
+                SELECT accountNumber, day, openingCents, closingCents, creditsCents, debitsCents,
+                       interestCents, transactionCount
+                FROM daily_balances
+                WHERE day BETWEEN ? AND ?
+                ORDER BY accountNumber, day
+                """;
+        List<BalanceSummary> report = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, month.atDay(1).toString());
+            pstmt.setString(2, month.atEndOfMonth().toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                List<BalanceSummary> accountDays = new ArrayList<>();
+                while (rs.next()) {
+                    BalanceSummary day = readDay(rs);
+                    if (!accountDays.isEmpty() && !accountDays.get(0).getAccountNumber().equals(day.getAccountNumber())) {
+                        report.add(rollUpMonth(accountDays));
+                        accountDays.clear();
+                    }
+                    accountDays.add(day);
+                }
+                if (!accountDays.isEmpty()) report.add(rollUpMonth(accountDays));
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to build month-end report: " + e.getMessage());
+        }
+        return report;
+    }
+
+    /**
+     * Recomputes daily_balances from the live transactions table, a range of
+     * accounts at a time. Days in archived years are closed and kept as they are.
+     * Each range is replaced in its own SQLite transaction, so the application
+     * can keep writing while this runs: rows written for a range before it is
+     * rebuilt are recomputed with it, rows written after are recorded as usual.
+     * @param accountsPerChunk Accounts summarised per SQLite transaction
+     * @return Number of day rows written
+     */
+    public long rebuild(int accountsPerChunk) throws SQLException {
+        if (accountsPerChunk <= 0) throw new IllegalArgumentException("Chunk size must be positive.");
+        long rows = 0;
+        String lower = "";
+        try (Connection conn = DatabaseManager.getConnection()) {
+            LocalDateTime liveFrom = TransactionArchive.liveFrom(conn);
+            String fromTimestamp = liveFrom == null ? null : liveFrom.toString();
+            String fromDay = liveFrom == null ? null : liveFrom.toLocalDate().toString();
+            while (lower != null) {
+                String upper = chunkEnd(conn, lower, accountsPerChunk); // null: no upper bound
+                conn.setAutoCommit(false);
+                try (PreparedStatement delete = conn.prepareStatement("""
+                             DELETE FROM daily_balances
+                             WHERE accountNumber > ? AND (? IS NULL OR accountNumber <= ?) AND (? IS NULL OR day >= ?)
+                             """);
+                     PreparedStatement insert = conn.prepareStatement(REBUILD)) {
+                    bindRange(delete, lower, upper, fromDay);
+                    delete.executeUpdate();
+                    bindRange(insert, lower, upper, fromTimestamp);
+                    rows += insert.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                lower = upper;
+            }
+        }
+        return rows;
+    }
+
+    // ----- Helpers -----
+
+    private static List<BalanceSummary> loadDays(Connection conn, String accountNumber,
+                                                 LocalDate from, LocalDate to) throws SQLException {
+        String sql = """
+                SELECT accountNumber, day, openingCents, closingCents, creditsCents, debitsCents,
+                       interestCents, transactionCount
+                FROM daily_balances
+                WHERE accountNumber = ? AND day BETWEEN ? AND ?
+                ORDER BY day
+                """;
+        List<BalanceSummary> days = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, accountNumber);
+            pstmt.setString(2, from.toString());
+            pstmt.setString(3, to.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) days.add(readDay(rs));
+            }
+        }
+        return days;
+    }
+
+    private static BalanceSummary readDay(ResultSet rs) throws SQLException {
+        LocalDate day = LocalDate.parse(rs.getString(2));
+        return new BalanceSummary(rs.getString(1), day, day, rs.getLong(3), rs.getLong(4),
+                rs.getLong(5), rs.getLong(6), rs.getLong(7), rs.getInt(8));
+    }
+
+    /**
+     * Joins the active days of one account in one month into a summary of the whole month.
+     */
+    private static BalanceSummary rollUpMonth(List<BalanceSummary> days) {
+        BalanceSummary total = days.get(0);
+        for (int i = 1; i < days.size(); i++) total = total.followedBy(days.get(i));
+        YearMonth month = YearMonth.from(total.getFirstDay());
+        return new BalanceSummary(total.getAccountNumber(), month.atDay(1), month.atEndOfMonth(),
+                total.getOpeningCents(), total.getClosingCents(), total.getCreditsCents(),
+                total.getDebitsCents(), total.getInterestCents(), total.getTransactionCount());
+    }
+
+    /**
+     * Balance at the end of the account's last active day before the given day, or null if none.
+     */
+    private static Long closingBefore(Connection conn, String accountNumber, LocalDate day) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT closingCents FROM daily_balances WHERE accountNumber = ? AND day < ? ORDER BY day DESC LIMIT 1")) {
+            pstmt.setString(1, accountNumber);
+            pstmt.setString(2, day.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * The account number that ends a chunk starting after lower, or null for the last chunk.
+     */
+    private static String chunkEnd(Connection conn, String lower, int accountsPerChunk) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT accountNumber FROM accounts WHERE accountNumber > ? ORDER BY accountNumber LIMIT 1 OFFSET ?")) {
+            pstmt.setString(1, lower);
+            pstmt.setInt(2, accountsPerChunk - 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void bindRange(PreparedStatement pstmt, String lower, String upper, String from) throws SQLException {
+        pstmt.setString(1, lower);
+        pstmt.setString(2, upper);
+        pstmt.setString(3, upper);
+        pstmt.setString(4, from);
+        pstmt.setString(5, from);
+    }
+}
@@ -0,0 +1,267 @@
+// services/IngestPipeline.java
+package services;
+
+import entities.Account;
+import entities.SavingsAccount;
+import utils.Money;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless file-to-ledger ingestion: parse → validate → apply → persist.
+ * Stages run on their own threads with bounded queues in between. Apply is
+ * split across workers by account number, so different accounts are applied
+ * in parallel while each account's rows keep their file order. Persisting is
+ * done by the {@link TransactionJournal}, which batches the applied rows.
+ */
+public class IngestPipeline {
+
+    /**
+     * Supported input layouts.
+     */
+    public enum Format {
+        /** accountNumber,type,amount — type is D/W (or DEPOSIT/WITHDRAWAL), amount like 1234.56 */
+        CSV,
+        /** cols 1-12 account number, col 13 type (D/W), cols 14-25 amount in cents, zero-padded */
+        FIXED_WIDTH
+    }
+
+    private static final int QUEUE_CAPACITY = 4_096;
+    private static final Record END = new Record(-1, null, false, 0, null);
+
+    private final Map<String, Account> accounts;
+    private final Format format;
+    private final int workers;
+
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private BufferedWriter rejectWriter;
+
+    /**
+     * @param accounts Target accounts keyed by account number
+     * @param format Input layout
+     * @param workers Number of parallel apply workers
+     */
+    public IngestPipeline(Map<String, Account> accounts, Format format, int workers) {
+        this.accounts = accounts;
+        this.format = format;
+        this.workers = workers;
+    }
+
+    /**
+     * Streams the input file through the pipeline, writing rejected rows to rejectFile.
+     * Returns once every accepted row has been applied and handed to the journal.
+     */
+    public Report run(Path input, Path rejectFile) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        BlockingQueue<Record> parsed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        List<BlockingQueue<Record>> partitions = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            partitions.add(new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+        }
+
+        long[] read = new long[1];
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+            rejectWriter = rejects;
+            rejects.write("line,reason,record");
+            rejects.newLine();
+
+            List<Thread> threads = new ArrayList<>();
+            threads.add(new Thread(() -> read[0] = parseStage(reader, parsed), "ingest-parse"));
+            threads.add(new Thread(() -> validateStage(parsed, partitions), "ingest-validate"));
+            for (int i = 0; i < workers; i++) {
+                BlockingQueue<Record> partition = partitions.get(i);
+                threads.add(new Thread(() -> applyStage(partition), "ingest-apply-" + i));
+            }
+            for (Thread t : threads) t.start();
+            for (Thread t : threads) t.join();
+        }
+
+        TransactionJournal.getInstance().flush();
+        return new Report(read[0], applied.get(), rejected.get(), System.nanoTime() - start);
+    }
+
+    private long parseStage(BufferedReader reader, BlockingQueue<Record> out) {
+        long lineNo = 0;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank() || (lineNo == 1 && line.startsWith("accountNumber"))) continue;
+                try {
+                    out.put(format == Format.CSV ? parseCsv(lineNo, line) : parseFixedWidth(lineNo, line));
+                } catch (IllegalArgumentException e) {
+                    reject(lineNo, "Unparseable: " + e.getMessage(), line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Ingest stopped reading at line " + lineNo + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sendEnd(out); // however parsing ended, the later stages must finish
+        }
+        return lineNo;
+    }
+
+    /**
+     * Queues END, waiting through interrupts so a stopped stage can't leave the
+     * next one blocked in take() forever. Restores the interrupt status afterwards.
+     */
+    private static void sendEnd(BlockingQueue<Record> out) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                out.put(END);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private static Record parseCsv(long lineNo, String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 3) throw new IllegalArgumentException("expected 3 fields, found " + fields.length);
+        return new Record(lineNo, fields[0].trim(), parseType(fields[1].trim()), Money.parse(fields[2]), line);
+    }
+
+    private static Record parseFixedWidth(long lineNo, String line) {
+        if (line.length() < 25) throw new IllegalArgumentException("record shorter than 25 characters");
+        return new Record(lineNo, line.substring(0, 12).trim(), parseType(line.substring(12, 13)),
+                Long.parseLong(line.substring(13, 25).trim()), line);
+    }
+
+    private static boolean parseType(String type) {
+        return switch (type.toUpperCase()) {
+            case "D", "DEPOSIT" -> true;
+            case "W", "WITHDRAWAL" -> false;
+            default -> throw new IllegalArgumentException("unknown type '" + type + "'");
+        };
+    }
+
+    private void validateStage(BlockingQueue<Record> in, List<BlockingQueue<Record>> partitions) {
+        try {
+            Record r;
+            while ((r = in.take()) != END) {
+                Account account = accounts.get(r.accountNumber);
+                if (account == null) {
+                    reject(r.lineNo, "Unknown account " + r.accountNumber, r.raw);
+                } else if (r.amountCents <= 0) {
+                    reject(r.lineNo, "Amount must be positive.", r.raw);
+                } else if (!r.deposit && account instanceof SavingsAccount) {
+                    reject(r.lineNo, "Withdrawal not allowed from Savings Account.", r.raw);
+                } else {
+                    // Same account always goes to the same worker, which keeps its rows in order
+                    partitions.get(Math.floorMod(r.accountNumber.hashCode(), partitions.size())).put(r);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (BlockingQueue<Record> partition : partitions) {
+                sendEnd(partition);
+            }
+        }
+    }
+
+    private void applyStage(BlockingQueue<Record> in) {
+        try {
+            Record r;
+            while ((r = in.take()) != END) {
+                Account account = accounts.get(r.accountNumber);
+                try {
+                    if (r.deposit) {
+                        account.deposit(r.amountCents);
+                    } else {
+                        account.withdraw(r.amountCents);
+                    }
+                    applied.incrementAndGet();
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    reject(r.lineNo, e.getMessage(), r.raw);
+                } catch (RuntimeException e) {
+                    // Keep draining: a dead worker would leave validate blocked on a full queue
+                    reject(r.lineNo, "Failed: " + e, r.raw);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reject(long lineNo, String reason, String raw) {
+        rejected.incrementAndGet();
+        synchronized (this) {
+            try {
+                rejectWriter.write(lineNo + ",\"" + reason.replace("\"", "'") + "\",\"" + raw.replace("\"", "\"\"") + "\"");
+                rejectWriter.newLine();
+            } catch (IOException e) {
+                System.err.println("❌ Failed to write reject for line " + lineNo + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One parsed input row.
+     */
+    private static class Record {
+        final long lineNo;
+        final String accountNumber;
+        final boolean deposit;
+        final long amountCents;
+        final String raw;
+
+        Record(long lineNo, String accountNumber, boolean deposit, long amountCents, String raw) {
+            this.lineNo = lineNo;
+            this.accountNumber = accountNumber;
+            this.deposit = deposit;
+            this.amountCents = amountCents;
+            this.raw = raw;
+        }
+    }
+
+    /**
+     * Row counts and throughput for one ingestion run.
+     */
+    public static class Report {
+        private final long linesRead;
+        private final long applied;
+        private final long rejected;
+        private final long elapsedNanos;
+
+        Report(long linesRead, long applied, long rejected, long elapsedNanos) {
+            this.linesRead = linesRead;
+            this.applied = applied;
+            this.rejected = rejected;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getLinesRead() { return linesRead; }
+        public long getApplied() { return applied; }
+        public long getRejected() { return rejected; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : (applied + rejected) / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Ingest{read=%d, applied=%d, rejected=%d, %.2f s, %.0f rows/s}",
+                    linesRead, applied, rejected, elapsedNanos / 1e9, getRowsPerSecond());
+        }
+    }
+}
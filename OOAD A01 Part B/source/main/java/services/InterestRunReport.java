@@ -0,0 +1,50 @@
+// services/InterestRunReport.java
+package services;
+
+import utils.Money;
+
+import java.time.YearMonth;
+
+/**
+ * Outcome of one monthly interest run: what was credited and how fast.
+ */
+public class InterestRunReport {
+    private final YearMonth period;
+    private final int accountsCredited;
+    private final int accountsSkipped;
+    private final int chunksCommitted;
+    private final long totalInterestCents;
+    private final long elapsedNanos;
+    private final boolean resumed;
+
+    public InterestRunReport(YearMonth period, int accountsCredited, int accountsSkipped, int chunksCommitted,
+                             long totalInterestCents, long elapsedNanos, boolean resumed) {
+        this.period = period;
+        this.accountsCredited = accountsCredited;
+        this.accountsSkipped = accountsSkipped;
+        this.chunksCommitted = chunksCommitted;
+        this.totalInterestCents = totalInterestCents;
+        this.elapsedNanos = elapsedNanos;
+        this.resumed = resumed;
+    }
+
+    public YearMonth getPeriod() { return period; }
+    public int getAccountsCredited() { return accountsCredited; }
+    /** Accounts already credited by an earlier, interrupted run for the same period. */
+    public int getAccountsSkipped() { return accountsSkipped; }
+    public int getChunksCommitted() { return chunksCommitted; }
+    public long getTotalInterestCents() { return totalInterestCents; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public boolean isResumed() { return resumed; }
+
+    public double getAccountsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : accountsCredited / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InterestRun{%s: %d accounts, %d chunks, %s BWP, %.1f ms, %.0f accounts/s%s}",
+                period, accountsCredited, chunksCommitted, Money.format(totalInterestCents), elapsedNanos / 1e6,
+                getAccountsPerSecond(), resumed ? ", resumed after " + accountsSkipped : "");
+    }
+}
@@ -1,16 +1,289 @@
 package services;
 
 import entities.Account;
+import entities.Customer;
+import entities.Transaction;
 
+import utils.LatencyHistogram;
+import utils.Metrics;
+import utils.StripedLock;
+
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * Monthly interest engine.
+ * Accounts are taken in account-number order a chunk at a time; each chunk's interest
+ * is computed in parallel on a fork-join pool, then its transaction rows, balance updates
+ * and checkpoint go into one SQLite transaction, so a run that dies partway through
+ * resumes after the last committed chunk.
+ * A chunk's account stripes stay locked from reading the balances until the interest
+ * is posted in memory, so no deposit can slip in between and a ledger snapshot
+ * (which locks every stripe) never sees a committed chunk that isn't posted yet.
+ */
 public class InterestService {
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+    private static final int COMPUTE_SLICE = 64; // accounts per fork-join leaf within a chunk
+    private static final LatencyHistogram RUN_LATENCY = Metrics.histogram("interest.run");
+    private static final LatencyHistogram CHUNK_LATENCY = Metrics.histogram("interest.chunkCommit");
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final PersistenceService persistenceService = new PersistenceService();
+
+    public InterestService() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public InterestService(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public InterestRunReport processMonthlyInterest(List<Account> allAccounts) {
+        return processMonthlyInterest(allAccounts, YearMonth.now());
+    }
+
+    /**
+     * Credits interest for the given period. Running the same period twice only
+     * finishes whatever the first run did not commit.
+     */
+    public InterestRunReport processMonthlyInterest(List<Account> allAccounts, YearMonth period) {
+        // Stable order by account number, so the checkpoint means the same thing after a restart
+        List<Account> ordered = new ArrayList<>(allAccounts);
+        ordered.sort(Comparator.comparing(Account::getAccountNumber));
+        return run(period, new SortedAccounts(ordered));
+    }
+
+    public InterestRunReport processMonthlyInterest(CustomerRegistry customers) {
+        return processMonthlyInterest(customers, YearMonth.now());
+    }
+
+    /**
+     * Credits interest to every account in the bank, reading the accounts from SQLite
+     * one chunk at a time through the registry, so only the chunk being credited
+     * (and whatever the registry caches) is held in memory.
+     */
+    public InterestRunReport processMonthlyInterest(CustomerRegistry customers, YearMonth period) {
+        return run(period, new StoredAccounts(customers));
+    }
 
-    public void processMonthlyInterest(List<Account> allAccounts) {
-        System.out.println("\n--- Processing Monthly Interest ---");
-        for (Account account : allAccounts) {
-            account.applyInterest();
+    private InterestRunReport run(YearMonth period, AccountSource source) {
+        System.out.println("\n--- Processing Monthly Interest (" + period + ") ---");
+        long start = System.nanoTime();
+        String runId = period.toString();
+
+        if (persistenceService.isInterestRunComplete(runId)) {
+            System.out.println("--- Interest for " + period + " was already credited ---\n");
+            return new InterestRunReport(period, 0, source.countUpTo(null), 0, 0, System.nanoTime() - start, false);
+        }
+
+        String checkpoint = persistenceService.loadInterestCheckpoint(runId);
+        int skipped = checkpoint == null ? 0 : source.countUpTo(checkpoint);
+
+        int credited = 0;
+        int chunks = 0;
+        long total = 0;
+        String last = checkpoint;
+        boolean stopped = false;
+        StripedLock locks = Account.locks();
+        while (true) {
+            List<Account> chunk;
+            try {
+                chunk = source.after(last, chunkSize);
+            } catch (SQLException e) {
+                System.err.println("❌ Interest run stopped reading accounts: " + e.getMessage());
+                stopped = true;
+                break;
+            }
+            if (chunk.isEmpty()) break;
+
+            long[] interest = new long[chunk.size()];
+            pool.invoke(new ComputeInterest(chunk, interest, 0, chunk.size()));
+            String chunkLast = chunk.get(chunk.size() - 1).getAccountNumber();
+
+            int[] stripes = stripesToCredit(locks, chunk, interest);
+            for (int stripe : stripes) locks.getAt(stripe).lock();
+            try {
+                // Rows already queued for these accounts must be committed before the interest rows
+                TransactionJournal.flushShared();
+                List<TransactionJournal.Entry> rows = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (interest[i] <= 0) continue;
+                    Account account = chunk.get(i);
+                    Transaction t = new Transaction("Interest Credited", interest[i], account.getBalanceCents() + interest[i]);
+                    rows.add(new TransactionJournal.Entry(t, account.getAccountNumber(), false));
+                }
+
+                long chunkStart = System.nanoTime();
+                try {
+                    persistenceService.saveInterestChunk(runId, rows, chunkLast, false);
+                    CHUNK_LATENCY.recordSince(chunkStart);
+                } catch (SQLException e) {
+                    System.err.println("❌ Interest run stopped at chunk " + (chunks + 1) + ": " + e.getMessage());
+                    stopped = true;
+                    break;
+                }
+
+                // Only touch in-memory balances once the chunk is durable
+                for (int i = 0, r = 0; i < chunk.size(); i++) {
+                    if (interest[i] <= 0) continue;
+                    chunk.get(i).postInterest(rows.get(r++).transaction);
+                    total += interest[i];
+                    credited++;
+                }
+                chunks++;
+                last = chunkLast;
+            } finally {
+                for (int k = stripes.length - 1; k >= 0; k--) locks.getAt(stripes[k]).unlock();
+            }
+        }
+        if (!stopped) {
+            try {
+                persistenceService.saveInterestChunk(runId, List.of(), last, true);
+            } catch (SQLException e) {
+                System.err.println("❌ Failed to close interest run: " + e.getMessage());
+            }
         }
+
+        InterestRunReport report = new InterestRunReport(period, credited, skipped, chunks, total,
+                System.nanoTime() - start, checkpoint != null);
+        RUN_LATENCY.recordSince(start);
+        System.out.println(report);
         System.out.println("--- Interest Processing Complete ---\n");
+        return report;
+    }
+
+    /**
+     * Accounts to credit, handed out in account-number order a chunk at a time.
+     */
+    private interface AccountSource {
+        /** Up to limit accounts numbered after the given one (from the start when null). */
+        List<Account> after(String accountNumber, int limit) throws SQLException;
+
+        /** How many accounts are numbered up to the given one (all of them when null). */
+        int countUpTo(String accountNumber);
+    }
+
+    /**
+     * An account list already in memory, sorted by account number.
+     */
+    private static final class SortedAccounts implements AccountSource {
+        private final List<Account> ordered;
+
+        SortedAccounts(List<Account> ordered) {
+            this.ordered = ordered;
+        }
+
+        @Override
+        public List<Account> after(String accountNumber, int limit) {
+            int from = accountNumber == null ? 0 : countUpTo(accountNumber);
+            return ordered.subList(from, Math.min(from + limit, ordered.size()));
+        }
+
+        @Override
+        public int countUpTo(String accountNumber) {
+            if (accountNumber == null) return ordered.size();
+            int lo = 0, hi = ordered.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ordered.get(mid).getAccountNumber().compareTo(accountNumber) <= 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Keyset pages of account numbers from SQLite, each resolved through the registry.
+     * Accounts whose owner cannot be found are left out.
+     */
+    private final class StoredAccounts implements AccountSource {
+        private final CustomerRegistry customers;
+
+        StoredAccounts(CustomerRegistry customers) {
+            this.customers = customers;
+        }
+
+        @Override
+        public List<Account> after(String accountNumber, int limit) throws SQLException {
+            List<Account> chunk = new ArrayList<>(limit);
+            String from = accountNumber;
+            while (chunk.isEmpty()) {
+                Map<String, String> owners = persistenceService.loadAccountOwnersAfter(from, limit);
+                if (owners.isEmpty()) break;
+                for (Map.Entry<String, String> e : owners.entrySet()) {
+                    Account account = findAccount(e.getValue(), e.getKey());
+                    if (account != null) chunk.add(account);
+                    from = e.getKey();
+                }
+            }
+            return chunk;
+        }
+
+        @Override
+        public int countUpTo(String accountNumber) {
+            return persistenceService.countAccountsUpTo(accountNumber);
+        }
+
+        private Account findAccount(String ownerNumber, String accountNumber) {
+            Customer owner = ownerNumber == null ? null : customers.find(ownerNumber);
+            if (owner == null) return null;
+            for (Account account : owner.getAccounts()) {
+                if (account.getAccountNumber().equals(accountNumber)) return account;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Distinct lock stripes of the accounts that earn interest, in
+     * ascending order, the order every multi-account operation locks in.
+     */
+    private static int[] stripesToCredit(StripedLock locks, List<Account> accounts, long[] interest) {
+        BitSet stripes = new BitSet(locks.size());
+        for (int i = 0; i < accounts.size(); i++) {
+            if (interest[i] > 0) stripes.set(locks.stripeOf(accounts.get(i).getAccountNumber()));
+        }
+        return stripes.stream().toArray();
+    }
+
+    /**
+     * Splits the account range in half until it is small enough to compute directly.
+     */
+    private class ComputeInterest extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Account> accounts;
+        private final long[] interest;
+        private final int lo;
+        private final int hi;
+
+        ComputeInterest(List<Account> accounts, long[] interest, int lo, int hi) {
+            this.accounts = accounts;
+            this.interest = interest;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= COMPUTE_SLICE) {
+                for (int i = lo; i < hi; i++) {
+                    interest[i] = accounts.get(i).calculateInterest();
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ComputeInterest(accounts, interest, lo, mid),
+                    new ComputeInterest(accounts, interest, mid, hi));
+        }
     }
-}
\ No newline at end of file
+}
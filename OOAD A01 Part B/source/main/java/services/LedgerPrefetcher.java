@@ -0,0 +1,56 @@
+// services/LedgerPrefetcher.java
+package services;
+
+import entities.Account;
+import entities.Customer;
+import utils.Metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads deferred accounts and histories ahead of use on one low-priority
+ * background thread, e.g. as soon as a customer logs in, so the dashboard and
+ * history view don't wait on SQLite.
+ */
+public class LedgerPrefetcher {
+    private static final LongAdder PREFETCHED = Metrics.counter("prefetch.customers");
+
+    private final ExecutorService worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "ledger-prefetch");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+
+    public void prefetch(Customer customer) {
+        worker.execute(() -> warm(customer));
+    }
+
+    /**
+     * Queues every customer, in order, behind anything already queued.
+     */
+    public void prefetchAll(Collection<Customer> customers) {
+        List<Customer> copy = new ArrayList<>(customers);
+        worker.execute(() -> copy.forEach(LedgerPrefetcher::warm));
+    }
+
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private static void warm(Customer customer) {
+        if (Thread.currentThread().isInterrupted()) return;
+        for (Account account : customer.getAccounts()) {
+            account.getTransactionHistory();
+        }
+        PREFETCHED.increment();
+    }
+}
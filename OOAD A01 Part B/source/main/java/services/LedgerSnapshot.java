@@ -0,0 +1,274 @@
+// services/LedgerSnapshot.java
+package services;
+
+import entities.*;
+import utils.StripedLock;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary image of the in-memory ledger: customers, accounts, balances and every
+ * account's history columns, tagged with the highest transactions.id it contains.
+ * Startup maps the file, then only replays rows above that watermark.
+ *
+ * Layout (little-endian): magic, version, watermark, created-at millis, customer count;
+ * per customer five strings (the last is the PIN hash) and an account count; per account
+ * kind, number, branch, balance, company flag, employer name/address, row count and the
+ * four history columns.
+ * Strings are a short byte length (-1 for null) followed by UTF-8.
+ */
+public class LedgerSnapshot {
+    private static final long MAGIC = 0x31305041_4E534B42L; // "BKSNAP01"
+    private static final int VERSION = 2; // 2: customers carry PIN hashes, not PINs
+
+    private static final byte SAVINGS = 0;
+    private static final byte INVESTMENT = 1;
+    private static final byte CHEQUE = 2;
+
+    private final long watermark;
+    private final long createdMillis;
+    private final List<Customer> customers;
+    private final Map<String, Account> accounts;
+
+    private LedgerSnapshot(long watermark, long createdMillis, List<Customer> customers, Map<String, Account> accounts) {
+        this.watermark = watermark;
+        this.createdMillis = createdMillis;
+        this.customers = customers;
+        this.accounts = accounts;
+    }
+
+    /** Highest transactions.id included in the snapshot. */
+    public long getWatermark() { return watermark; }
+    public long getCreatedMillis() { return createdMillis; }
+    public List<Customer> getCustomers() { return customers; }
+    /** The snapshot's accounts keyed by account number. */
+    public Map<String, Account> getAccounts() { return accounts; }
+
+    /**
+     * Writes a consistent snapshot of the given customers.
+     * Accounts and histories are gathered first; balance changes are then paused
+     * (every account stripe is locked) only while the journal is flushed and each
+     * account's balance and history length are noted. The rows are serialized after
+     * the locks are released: histories only ever grow, so the rows below each noted
+     * length don't change. The file goes to a temp file that then replaces the target.
+     * Interest chunks commit and post while holding their accounts' stripes, so the
+     * watermark never covers interest that isn't in memory.
+     * @return The watermark written
+     */
+    public static long write(Path file, Collection<Customer> customers) throws IOException {
+        List<Customer> owners = new ArrayList<>(customers);
+        List<List<Account>> ownedAccounts = new ArrayList<>(owners.size());
+        int accountCount = 0;
+        for (Customer c : owners) {
+            List<Account> list = new ArrayList<>(c.getAccounts());
+            ownedAccounts.add(list);
+            accountCount += list.size();
+        }
+        Account[] accounts = new Account[accountCount];
+        TransactionHistory[] histories = new TransactionHistory[accountCount];
+        int n = 0;
+        for (List<Account> list : ownedAccounts) {
+            for (Account a : list) {
+                accounts[n] = a;
+                histories[n++] = a.getTransactionHistory(); // may read SQLite, so not under the locks
+            }
+        }
+
+        // Consistent cut: nothing can change a balance, or commit interest, while every stripe is held
+        long[] balances = new long[accountCount];
+        int[] rowCounts = new int[accountCount];
+        long watermark;
+        StripedLock locks = Account.locks();
+        for (int i = 0; i < locks.size(); i++) locks.getAt(i).lock();
+        try {
+            TransactionJournal.flushShared();
+            watermark = new PersistenceService().maxTransactionId();
+            for (int i = 0; i < accountCount; i++) {
+                balances[i] = accounts[i].getBalanceCents();
+                rowCounts[i] = histories[i].size();
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not read the transaction watermark", e);
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) locks.getAt(i).unlock();
+        }
+
+        long bytes = 8 + 4 + 8 + 8 + 4;
+        for (int i = 0, k = 0; i < owners.size(); i++) {
+            Customer c = owners.get(i);
+            bytes += stringBytes(c.getFirstName()) + stringBytes(c.getSurname()) + stringBytes(c.getAddress())
+                    + stringBytes(c.getAccountNumber()) + stringBytes(c.getPinHash()) + 4;
+            for (Account a : ownedAccounts.get(i)) {
+                String[] employer = employerOf(a);
+                bytes += 1 + stringBytes(a.getAccountNumber()) + stringBytes(a.getBranch()) + 8 + 1
+                        + stringBytes(employer[0]) + stringBytes(employer[1]) + 4
+                        + rowCounts[k++] * 25L;
+            }
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Ledger too large for a single mapped snapshot: " + bytes + " bytes");
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.putLong(MAGIC).putInt(VERSION).putLong(watermark).putLong(System.currentTimeMillis()).putInt(owners.size());
+
+            for (int i = 0, k = 0; i < owners.size(); i++) {
+                Customer c = owners.get(i);
+                putString(buf, c.getFirstName());
+                putString(buf, c.getSurname());
+                putString(buf, c.getAddress());
+                putString(buf, c.getAccountNumber());
+                putString(buf, c.getPinHash());
+                List<Account> list = ownedAccounts.get(i);
+                buf.putInt(list.size());
+
+                for (Account a : list) {
+                    int rows = rowCounts[k];
+                    String[] employer = employerOf(a);
+                    buf.put(kindOf(a));
+                    putString(buf, a.getAccountNumber());
+                    putString(buf, a.getBranch());
+                    buf.putLong(balances[k]);
+                    buf.put((byte) (a instanceof SavingsAccount s && s.isCompanyAccount() ? 1 : 0));
+                    putString(buf, employer[0]);
+                    putString(buf, employer[1]);
+                    buf.putInt(rows);
+
+                    TransactionHistory h = histories[k++];
+                    for (int r = 0; r < rows; r++) buf.put(h.getTypeCode(r));
+                    for (int r = 0; r < rows; r++) buf.putLong(h.getEpochMicros(r));
+                    for (int r = 0; r < rows; r++) buf.putLong(h.getAmountCents(r));
+                    for (int r = 0; r < rows; r++) buf.putLong(h.getBalanceAfterCents(r));
+                }
+            }
+            buf.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return watermark;
+    }
+
+    /**
+     * Maps and decodes a snapshot file.
+     * @return The snapshot, or null if the file doesn't exist or isn't a readable snapshot
+     */
+    public static LedgerSnapshot read(Path file) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("snapshot larger than 2 GB");
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.remaining() < 32 || buf.getLong() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException("not a version " + VERSION + " ledger snapshot");
+            }
+            long watermark = buf.getLong();
+            long created = buf.getLong();
+            int customerCount = buf.getInt();
+
+            List<Customer> customers = new ArrayList<>(customerCount);
+            Map<String, Account> accounts = new HashMap<>();
+            for (int i = 0; i < customerCount; i++) {
+                Customer c = new Customer(getString(buf), getString(buf), getString(buf), getString(buf), getString(buf));
+                int accountCount = buf.getInt();
+                for (int j = 0; j < accountCount; j++) {
+                    Account a = readAccount(buf, c);
+                    c.addAccount(a);
+                    accounts.put(a.getAccountNumber(), a);
+                }
+                customers.add(c);
+            }
+            return new LedgerSnapshot(watermark, created, customers, accounts);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Ignoring unreadable snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Account readAccount(MappedByteBuffer buf, Customer owner) throws IOException {
+        byte kind = buf.get();
+        String number = getString(buf);
+        String branch = getString(buf);
+        long balance = buf.getLong();
+        boolean company = buf.get() != 0;
+        String employerName = getString(buf);
+        String employerAddress = getString(buf);
+        Account a = switch (kind) {
+            case SAVINGS -> new SavingsAccount(number, branch, owner, company, balance);
+            case INVESTMENT -> new InvestmentAccount(number, branch, owner, balance);
+            case CHEQUE -> new ChequeAccount(number, branch, owner, employerName, employerAddress, balance);
+            default -> throw new IOException("unknown account kind " + kind);
+        };
+
+        int rows = buf.getInt();
+        byte[] types = new byte[rows];
+        long[] timestamps = new long[rows];
+        long[] amounts = new long[rows];
+        long[] balances = new long[rows];
+        buf.get(types);
+        bulkGet(buf, timestamps);
+        bulkGet(buf, amounts);
+        bulkGet(buf, balances);
+        a.getTransactionHistory().appendColumns(types, timestamps, amounts, balances, rows);
+        return a;
+    }
+
+    private static void bulkGet(MappedByteBuffer buf, long[] into) {
+        buf.asLongBuffer().get(into);
+        buf.position(buf.position() + into.length * 8);
+    }
+
+    private static byte kindOf(Account a) {
+        if (a instanceof SavingsAccount) return SAVINGS;
+        if (a instanceof InvestmentAccount) return INVESTMENT;
+        return CHEQUE;
+    }
+
+    private static String[] employerOf(Account a) {
+        return a instanceof ChequeAccount c
+                ? new String[]{c.getEmployerName(), c.getEmployerAddress()}
+                : new String[]{null, null};
+    }
+
+    private static int stringBytes(String s) {
+        return 2 + (s == null ? 0 : s.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static void putString(MappedByteBuffer buf, String s) {
+        if (s == null) {
+            buf.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        buf.putShort((short) bytes.length);
+        buf.put(bytes);
+    }
+
+    private static String getString(MappedByteBuffer buf) {
+        short len = buf.getShort();
+        if (len < 0) return null;
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
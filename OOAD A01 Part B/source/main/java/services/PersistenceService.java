@@ -3,39 +3,278 @@ package services;
 
 import entities.*;
 import utils.DatabaseManager;
+import utils.LatencyHistogram;
+import utils.Metrics;
 
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.Map;
+import java.util.function.Function;
 
 public class PersistenceService {
-    private final Map<String, Customer> customerCache = new ConcurrentHashMap<>();
+    private static final int ROWS_PER_INSERT = 100;
+    private static final String SINGLE_ROW_INSERT =
+            "INSERT INTO transactions (type, amountCents, balanceAfterCents, timestamp, accountNumber) VALUES (?, ?, ?, ?, ?)";
+    private static final String MULTI_ROW_INSERT = SINGLE_ROW_INSERT
+            + ", (?, ?, ?, ?, ?)".repeat(ROWS_PER_INSERT - 1);
+
+    private static final LatencyHistogram LOAD_LATENCY = Metrics.histogram("db.loadAllCustomers");
+    private static final LatencyHistogram LOAD_ONE_LATENCY = Metrics.histogram("db.loadCustomer");
+    private static final LatencyHistogram SAVE_ONE_LATENCY = Metrics.histogram("db.saveTransaction");
+    private static final LatencyHistogram SAVE_BATCH_LATENCY = Metrics.histogram("db.saveTransactions");
+    private static final LongAdder ROWS_WRITTEN = Metrics.counter("db.transactionsWritten");
+    private static final LongAdder SAVE_FAILURES = Metrics.counter("db.saveFailures");
 
     /**
-     * Loads all customers and their accounts from the database.
+     * Loads all customers, their accounts and every account's transactions.
+     * Uses one connection and three sequential scans (customers, accounts, transactions)
+     * and wires the rows together in memory, instead of one query per account.
      */
     public List<Customer> loadAllCustomers() {
+        long start = System.nanoTime();
         List<Customer> customers = new ArrayList<>();
-        customerCache.clear();
+        Map<String, Customer> owners = new HashMap<>();
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            // Load customers
+            loadCustomersFromDB(conn, customers, owners);
 
-        // Load customers
-        loadCustomersFromDB(customers);
+            // Load accounts and link to customers
+            Map<String, Account> accounts = new HashMap<>();
+            loadAccountsFromDB(conn, owners, accounts);
+
+            // Stream every transaction once and append it to its account
+            loadTransactionsFromDB(conn, accounts, 0);
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to open database for loading: " + e.getMessage());
+        }
 
-        // Load accounts and link to customers
-        loadAccountsAndTransactions();
+        LOAD_LATENCY.recordSince(start);
+        return customers;
+    }
 
+    /**
+     * Loads the ledger from a snapshot plus what changed after it: customers and
+     * accounts created since (and every account's current balance) from their
+     * small tables, and only the transactions above the snapshot's watermark.
+     * Falls back to a full load when there is no usable snapshot.
+     */
+    public List<Customer> loadAllCustomers(Path snapshotFile) {
+        long start = System.nanoTime();
+        LedgerSnapshot snapshot = LedgerSnapshot.read(snapshotFile);
+        if (snapshot == null) {
+            return loadAllCustomers();
+        }
+
+        List<Customer> customers = new ArrayList<>(snapshot.getCustomers());
+        Map<String, Account> accounts = new HashMap<>(snapshot.getAccounts());
+        Map<String, Customer> owners = new HashMap<>();
+        customers.forEach(c -> owners.put(c.getAccountNumber(), c));
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            loadCustomersFromDB(conn, customers, owners);
+            List<Account> added = loadAccountsFromDB(conn, owners, accounts);
+            for (Account account : added) {
+                try {
+                    loadHistoryUpTo(conn, account.getAccountNumber(), account.getTransactionHistory(), snapshot.getWatermark());
+                } catch (SQLException e) {
+                    System.err.println("❌ Failed to load history for " + account.getAccountNumber() + ": " + e.getMessage());
+                }
+            }
+            loadTransactionsFromDB(conn, accounts, snapshot.getWatermark());
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to open database for loading: " + e.getMessage());
+        }
+        LOAD_LATENCY.recordSince(start);
+        return customers;
+    }
+
+    /**
+     * Loads one customer with their accounts, for caches that keep only part of
+     * the bank in memory. Histories are read on first use.
+     * @return The customer, or null if there is no such customer
+     */
+    public Customer loadCustomer(String accountNumber) {
+        long start = System.nanoTime();
+        Customer customer = null;
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT accountNumber, firstName, surname, address, pin FROM customers WHERE accountNumber = ?")) {
+                pstmt.setString(1, accountNumber);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        customer = new Customer(
+                                rs.getString("firstName"),
+                                rs.getString("surname"),
+                                rs.getString("address"),
+                                rs.getString("accountNumber"),
+                                rs.getString("pin")
+                        );
+                    }
+                }
+            }
+            if (customer == null) return null;
+            for (Account account : loadAccountsOf(conn, customer)) {
+                customer.addAccount(account);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load customer " + accountNumber + ": " + e.getMessage());
+            return null;
+        } finally {
+            LOAD_ONE_LATENCY.recordSince(start);
+        }
+        return customer;
+    }
+
+    /**
+     * Loads only the customers table; each customer's accounts are read when
+     * first asked for, and each account's history when that is first asked for.
+     * Enough for login, which checks the account number and PIN alone.
+     */
+    public List<Customer> loadAllCustomersDeferred() {
+        long start = System.nanoTime();
+        List<Customer> customers = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            loadCustomersFromDB(conn, customers, new HashMap<>());
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to open database for loading: " + e.getMessage());
+        }
+        for (Customer c : customers) {
+            c.deferAccounts(this::loadAccountsOf);
+        }
+        LOAD_LATENCY.recordSince(start);
         return customers;
     }
 
-    private void loadCustomersFromDB(List<Customer> customers) {
-        String sql = "SELECT * FROM customers";
+    /**
+     * Deferred account loader. Throws rather than returning no accounts, so the
+     * loader stays installed and the next access tries again.
+     * @throws IllegalStateException if the accounts could not be read
+     */
+    private List<Account> loadAccountsOf(Customer customer) {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            return loadAccountsOf(conn, customer);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load accounts for " + customer.getAccountNumber() + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The customer's accounts with their histories deferred.
+     */
+    private List<Account> loadAccountsOf(Connection conn, Customer customer) throws SQLException {
+        List<Account> accounts = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("""
+                SELECT accountNumber, balanceCents, branch, customerAccountNumber, type,
+                       companyAccount, employerName, employerAddress
+                FROM accounts WHERE customerAccountNumber = ?
+                """)) {
+            pstmt.setString(1, customer.getAccountNumber());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Account account = createAccountFromResultSet(rs, customer);
+                    account.markClean();
+                    account.deferHistory(this::loadHistory);
+                    accounts.add(account);
+                }
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * Deferred history loader. Rows are read into a scratch history and only
+     * added once all of them are in, so a failure leaves the history empty and
+     * the loader installed for the next access to try again.
+     * @throws IllegalStateException if the history could not be read
+     */
+    private void loadHistory(Account account, TransactionHistory into) {
+        TransactionHistory loaded = new TransactionHistory();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            loadHistoryUpTo(conn, account.getAccountNumber(), loaded, Long.MAX_VALUE);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load history for " + account.getAccountNumber() + ": "
+                    + e.getMessage(), e);
+        }
+        into.appendAll(loaded);
+    }
+
+    /**
+     * Customer account numbers whose surname starts with the prefix (case-insensitive), by surname.
+     */
+    public List<String> findCustomerNumbersBySurnamePrefix(String prefix) {
+        String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return queryCustomerNumbers("""
+                SELECT accountNumber FROM customers
+                WHERE surname LIKE ? ESCAPE '\\' ORDER BY surname COLLATE NOCASE, accountNumber
+                """, escaped + "%");
+    }
+
+    /**
+     * Account numbers of customers holding at least one account at the branch.
+     */
+    public List<String> findCustomerNumbersByBranch(String branch) {
+        return queryCustomerNumbers(
+                "SELECT DISTINCT customerAccountNumber FROM accounts WHERE branch = ? AND customerAccountNumber IS NOT NULL",
+                branch);
+    }
+
+    /**
+     * Every customer account number, in order; for walking the bank customer by customer.
+     */
+    public List<String> loadCustomerNumbers() {
+        return queryCustomerNumbers("SELECT accountNumber FROM customers ORDER BY accountNumber", null);
+    }
+
+    /**
+     * Every bank account number, in order (e.g. for exporting all statements).
+     */
+    public List<String> loadAccountNumbers() {
+        return queryCustomerNumbers("SELECT accountNumber FROM accounts ORDER BY accountNumber", null);
+    }
+
+    public int countCustomers() {
         try (Connection conn = DatabaseManager.getConnection();
              Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM customers")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to count customers: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private List<String> queryCustomerNumbers(String sql, String param) {
+        List<String> numbers = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (param != null) pstmt.setString(1, param);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) numbers.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to look up customers: " + e.getMessage());
+        }
+        return numbers;
+    }
+
+    /**
+     * Adds customers not already in owners to both the list and owners.
+     */
+    private void loadCustomersFromDB(Connection conn, List<Customer> customers, Map<String, Customer> owners) {
+        String sql = "SELECT accountNumber, firstName, surname, address, pin FROM customers";
+        try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                if (owners.containsKey(rs.getString("accountNumber"))) continue;
                 Customer c = new Customer(
                         rs.getString("firstName"),
                         rs.getString("surname"),
@@ -44,130 +283,505 @@ public class PersistenceService {
                         rs.getString("pin")
                 );
                 customers.add(c);
-                customerCache.put(c.getAccountNumber(), c);
+                owners.put(c.getAccountNumber(), c);
             }
         } catch (SQLException e) {
             System.err.println("❌ Failed to load customers: " + e.getMessage());
         }
     }
 
-    private void loadAccountsAndTransactions() {
-        String sql = "SELECT * FROM accounts ORDER BY customerAccountNumber";
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
+    /**
+     * Adds accounts not already in the map and refreshes the balance of those that are.
+     * @return The accounts that were added
+     */
+    private List<Account> loadAccountsFromDB(Connection conn, Map<String, Customer> owners, Map<String, Account> accounts) {
+        List<Account> added = new ArrayList<>();
+        String sql = """
+            SELECT accountNumber, balanceCents, branch, customerAccountNumber, type,
+                   companyAccount, employerName, employerAddress
+            FROM accounts
+            """;
+        try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                Account known = accounts.get(rs.getString("accountNumber"));
+                if (known != null) {
+                    known.setBalanceCents(rs.getLong("balanceCents"));
+                    known.markClean();
+                    continue;
+                }
+
                 String customerAccNum = rs.getString("customerAccountNumber");
-                Customer owner = customerCache.get(customerAccNum);
+                Customer owner = owners.get(customerAccNum);
                 if (owner == null) continue;
 
-                Account account = createAccountFromResultSet(rs);
+                Account account = createAccountFromResultSet(rs, owner);
                 owner.addAccount(account);
-
-                loadTransactionsForAccount(account);
+                accounts.put(account.getAccountNumber(), account);
+                added.add(account);
             }
         } catch (SQLException e) {
             System.err.println("❌ Failed to load accounts: " + e.getMessage());
         }
+        return added;
     }
 
-    private Account createAccountFromResultSet(ResultSet rs) throws SQLException {
+    private Account createAccountFromResultSet(ResultSet rs, Customer owner) throws SQLException {
         String type = rs.getString("type");
         String branch = rs.getString("branch");
-        double balance = rs.getDouble("balance");
+        long balance = rs.getLong("balanceCents");
         String accNum = rs.getString("accountNumber");
 
         return switch (type) {
-            case "SavingsAccount" -> {
-                boolean isCompany = rs.getBoolean("companyAccount");
-                SavingsAccount sa = new SavingsAccount(branch, null, isCompany);
-                sa.setBalance(balance);
-                sa.setAccountNumber(accNum);
-                yield sa;
-            }
-            case "InvestmentAccount" -> {
-                InvestmentAccount ia = new InvestmentAccount(branch, null, balance);
-                ia.setAccountNumber(accNum);
-                yield ia;
-            }
-            case "ChequeAccount" -> {
-                String empName = rs.getString("employerName");
-                String empAddr = rs.getString("employerAddress");
-                ChequeAccount ca = new ChequeAccount(branch, null, empName, empAddr);
-                ca.setBalance(balance);
-                ca.setAccountNumber(accNum);
-                yield ca;
-            }
+            case "SavingsAccount" -> new SavingsAccount(accNum, branch, owner, rs.getBoolean("companyAccount"), balance);
+            case "InvestmentAccount" -> new InvestmentAccount(accNum, branch, owner, balance);
+            case "ChequeAccount" -> new ChequeAccount(accNum, branch, owner,
+                    rs.getString("employerName"), rs.getString("employerAddress"), balance);
             default -> throw new IllegalArgumentException("Unknown account type: " + type);
         };
     }
 
-    private void loadTransactionsForAccount(Account account) {
-        String sql = "SELECT * FROM transactions WHERE accountNumber = ? ORDER BY timestamp";
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, account.getAccountNumber());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Transaction t = new Transaction(
-                            rs.getString("type"),
-                            rs.getDouble("amount"),
-                            rs.getDouble("balanceAfter")
-                    );
-                    account.getTransactionHistory().add(t);
+    /**
+     * Reads the transactions table in rowid order, which is insertion order, so each
+     * account's history comes out chronological without a sort. Archived years
+     * holding rows above afterId are read first, oldest first.
+     * @param afterId Only rows with a higher id are read (0 for all)
+     */
+    private void loadTransactionsFromDB(Connection conn, Map<String, Account> accounts, long afterId) {
+        String sql = "SELECT type, amountCents, balanceAfterCents, timestamp, accountNumber FROM transactions WHERE id > ? ORDER BY id";
+        Function<String, TransactionHistory> historyOf = n -> {
+            Account account = accounts.get(n);
+            return account == null ? null : account.getTransactionHistory();
+        };
+        try {
+            TransactionArchive.forEachPartition(conn, year -> year.getMaxId() > afterId, false, partition -> {
+                try (PreparedStatement pstmt = partition.prepareStatement(sql)) {
+                    pstmt.setLong(1, afterId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        appendRows(rs, historyOf);
+                    }
                 }
-            }
+                return true;
+            });
         } catch (SQLException e) {
             System.err.println("❌ Failed to load transactions: " + e.getMessage());
         }
     }
 
     /**
-     * Saves a single transaction to the database immediately.
+     * Loads one account's rows up to and including maxId (an account the snapshot
+     * didn't have, or a deferred history with maxId = Long.MAX_VALUE).
      */
-    public void saveTransaction(Transaction transaction, String accountNumber) {
+    private void loadHistoryUpTo(Connection conn, String accountNumber, TransactionHistory into, long maxId)
+            throws SQLException {
         String sql = """
-            INSERT INTO transactions (type, amount, balanceAfter, timestamp, accountNumber)
-            VALUES (?, ?, ?, ?, ?)
+            SELECT type, amountCents, balanceAfterCents, timestamp, accountNumber
+            FROM transactions WHERE accountNumber = ? AND id <= ? ORDER BY id
             """;
+        TransactionArchive.forEachPartition(conn, year -> year.getMinId() <= maxId, false, partition -> {
+            try (PreparedStatement pstmt = partition.prepareStatement(sql)) {
+                pstmt.setString(1, accountNumber);
+                pstmt.setLong(2, maxId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    appendRows(rs, n -> into);
+                }
+            }
+            return true;
+        });
+    }
 
+    /**
+     * Appends (type, amount, balanceAfter, timestamp, accountNumber) rows to the
+     * history historyOf returns for each account number (null skips the row).
+     */
+    private static void appendRows(ResultSet rs, Function<String, TransactionHistory> historyOf) throws SQLException {
+        String lastAccNum = null;
+        TransactionHistory history = null;
+        while (rs.next()) {
+            String accNum = rs.getString(5);
+            if (accNum == null) continue;
+            if (!accNum.equals(lastAccNum)) {
+                history = historyOf.apply(accNum);
+                lastAccNum = accNum;
+            }
+            if (history == null) continue;
+
+            history.append(
+                    TransactionType.fromLabel(rs.getString(1)),
+                    LocalDateTime.parse(rs.getString(4)),
+                    rs.getLong(2),
+                    rs.getLong(3)
+            );
+        }
+    }
+
+    /**
+     * Loads one page of an account's history, oldest first, using keyset pagination
+     * on (timestamp, id) so every page costs the same however deep it is.
+     * Only archived years at or after the page's start are read.
+     * @param after The previous page, or null for the first page
+     * @param limit Maximum rows in the page
+     */
+    public TransactionPage loadTransactionPage(String accountNumber, TransactionPage after, int limit) {
+        boolean fromStart = after == null || after.getLastTimestamp() == null; // nothing seen yet
+        String sql = fromStart
+                ? """
+                  SELECT id, type, amountCents, balanceAfterCents, timestamp FROM transactions
+                  WHERE accountNumber = ?
+                  ORDER BY timestamp, id LIMIT ?
+                  """
+                : """
+                  SELECT id, type, amountCents, balanceAfterCents, timestamp FROM transactions
+                  WHERE accountNumber = ? AND (timestamp, id) > (?, ?)
+                  ORDER BY timestamp, id LIMIT ?
+                  """;
+
+        // One extra row tells us whether another page exists
+        List<Transaction> rows = new ArrayList<>(limit + 1);
+        List<String> timestamps = new ArrayList<>(limit + 1);
+        List<Long> ids = new ArrayList<>(limit + 1);
+        LocalDateTime startsAfter = fromStart ? null : LocalDateTime.parse(after.getLastTimestamp());
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            TransactionArchive.forEachPartition(conn, TransactionArchive.overlapping(startsAfter, null), false, partition -> {
+                try (PreparedStatement pstmt = partition.prepareStatement(sql)) {
+                    int i = 1;
+                    pstmt.setString(i++, accountNumber);
+                    if (!fromStart) {
+                        pstmt.setString(i++, after.getLastTimestamp());
+                        pstmt.setLong(i++, after.getLastId());
+                    }
+                    pstmt.setInt(i, limit + 1 - rows.size());
+
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getLong(1));
+                            timestamps.add(rs.getString(5));
+                            rows.add(new Transaction(rs.getString(2), rs.getLong(3), rs.getLong(4),
+                                    LocalDateTime.parse(rs.getString(5))));
+                        }
+                    }
+                }
+                return rows.size() <= limit;
+            });
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load transaction page: " + e.getMessage());
+        }
+
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) rows.remove(limit);
+        if (rows.isEmpty()) {
+            return new TransactionPage(rows, after == null ? null : after.getLastTimestamp(),
+                    after == null ? 0 : after.getLastId(), false);
+        }
+        int last = rows.size() - 1;
+        return new TransactionPage(rows, timestamps.get(last), ids.get(last), hasMore);
+    }
+
+    /**
+     * Highest transactions.id written so far, archived or live (0 for an empty table).
+     */
+    long maxTransactionId() throws SQLException {
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM transactions")) {
+            long live = rs.next() ? rs.getLong(1) : 0;
+            return Math.max(live, TransactionArchive.maxArchivedId(conn));
+        }
+    }
 
-            pstmt.setString(1, transaction.getType());
-            pstmt.setDouble(2, transaction.getAmount());
-            pstmt.setDouble(3, transaction.getBalanceAfter());
-            pstmt.setString(4, transaction.getTimestamp().toString());
-            pstmt.setString(5, accountNumber);
-            pstmt.executeUpdate();
+    /**
+     * Counts an account's stored transactions, archived years included, using the history index.
+     */
+    public int countTransactions(String accountNumber) {
+        int[] count = new int[1];
+        try (Connection conn = DatabaseManager.getConnection()) {
+            TransactionArchive.forEachPartition(conn, year -> true, false, partition -> {
+                try (PreparedStatement pstmt = partition.prepareStatement(
+                        "SELECT COUNT(*) FROM transactions WHERE accountNumber = ?")) {
+                    pstmt.setString(1, accountNumber);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) count[0] += rs.getInt(1);
+                    }
+                }
+                return true;
+            });
+            return count[0];
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to count transactions: " + e.getMessage());
+            return 0;
+        }
+    }
 
+    /**
+     * Saves a single transaction and the account's new balance immediately.
+     * @throws SQLException if the row was not saved
+     */
+    public void saveTransaction(Transaction transaction, String accountNumber) throws SQLException {
+        long start = System.nanoTime();
+        saveTransactions(List.of(new TransactionJournal.Entry(transaction, accountNumber, false)));
+        SAVE_ONE_LATENCY.recordSince(start);
+    }
+
+    /**
+     * Saves a batch of journaled transactions in one SQLite transaction,
+     * using multi-row INSERTs of up to ROWS_PER_INSERT rows each, and moves
+     * each touched account's stored balance to its last row in the batch.
+     * @throws SQLException if the batch was rolled back; nothing was saved
+     */
+    void saveTransactions(List<TransactionJournal.Entry> entries) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertTransactions(conn, entries);
+                updateBalances(conn, entries);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            ROWS_WRITTEN.add(entries.size());
+            SAVE_BATCH_LATENCY.recordSince(start);
         } catch (SQLException e) {
-            System.err.println("❌ Failed to save transaction: " + e.getMessage());
+            SAVE_FAILURES.increment();
+            throw e;
         }
     }
 
     /**
-     * Saves a customer and all their accounts (but not individual transactions — those are saved immediately).
+     * Inserts transaction rows, and folds them into daily_balances, on the
+     * caller's connection without committing.
      */
-    public void saveCustomer(Customer customer) {
-        String sql = "INSERT OR REPLACE INTO customers (accountNumber, firstName, surname, address, pin) VALUES (?, ?, ?, ?, ?)";
+    void insertTransactions(Connection conn, List<TransactionJournal.Entry> entries) throws SQLException {
+        int i = 0;
+        if (entries.size() >= ROWS_PER_INSERT) {
+            try (PreparedStatement pstmt = conn.prepareStatement(MULTI_ROW_INSERT)) {
+                for (; i + ROWS_PER_INSERT <= entries.size(); i += ROWS_PER_INSERT) {
+                    for (int r = 0; r < ROWS_PER_INSERT; r++) {
+                        bindTransaction(pstmt, r * 5, entries.get(i + r));
+                    }
+                    pstmt.executeUpdate();
+                }
+            }
+        }
+        if (i < entries.size()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(SINGLE_ROW_INSERT)) {
+                for (; i < entries.size(); i++) {
+                    bindTransaction(pstmt, 0, entries.get(i));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+        DailyBalanceService.record(conn, entries);
+    }
+
+    /**
+     * Sets accounts.balanceCents to the balance after each account's last row in the batch,
+     * one UPDATE per account rather than per row.
+     */
+    private static void updateBalances(Connection conn, List<TransactionJournal.Entry> entries) throws SQLException {
+        Map<String, Long> latest = new HashMap<>();
+        for (TransactionJournal.Entry entry : entries) {
+            latest.put(entry.accountNumber, entry.transaction.getBalanceAfterCents());
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE accounts SET balanceCents = ? WHERE accountNumber = ?")) {
+            for (Map.Entry<String, Long> e : latest.entrySet()) {
+                pstmt.setLong(1, e.getValue());
+                pstmt.setString(2, e.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void bindTransaction(PreparedStatement pstmt, int offset, TransactionJournal.Entry entry) throws SQLException {
+        Transaction t = entry.transaction;
+        pstmt.setString(offset + 1, t.getType());
+        pstmt.setLong(offset + 2, t.getAmountCents());
+        pstmt.setLong(offset + 3, t.getBalanceAfterCents());
+        pstmt.setString(offset + 4, t.getTimestamp().toString());
+        pstmt.setString(offset + 5, entry.accountNumber);
+    }
+
+    /**
+     * Commits one chunk of an interest run: the interest rows, the new balances
+     * and the run checkpoint, all in a single SQLite transaction.
+     */
+    void saveInterestChunk(String runId, List<TransactionJournal.Entry> rows,
+                           String lastAccountNumber, boolean complete) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertTransactions(conn, rows);
+                updateBalances(conn, rows);
+
+                try (PreparedStatement pstmt = conn.prepareStatement("""
+                        INSERT INTO interest_runs (period, lastAccountNumber, completed) VALUES (?, ?, ?)
+                        ON CONFLICT (period) DO UPDATE SET lastAccountNumber = excluded.lastAccountNumber,
+                                                           completed = excluded.completed
+                        """)) {
+                    pstmt.setString(1, runId);
+                    pstmt.setString(2, lastAccountNumber);
+                    pstmt.setBoolean(3, complete);
+                    pstmt.executeUpdate();
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the last account number credited by an unfinished interest run, or null.
+     */
+    String loadInterestCheckpoint(String runId) {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT lastAccountNumber FROM interest_runs WHERE period = ?")) {
+            pstmt.setString(1, runId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load interest checkpoint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The next page of accounts after the given account number (from the start when
+     * null), in account-number order, mapped to the account number of their owner.
+     */
+    Map<String, String> loadAccountOwnersAfter(String accountNumber, int limit) throws SQLException {
+        String sql = accountNumber == null
+                ? "SELECT accountNumber, customerAccountNumber FROM accounts ORDER BY accountNumber LIMIT ?"
+                : "SELECT accountNumber, customerAccountNumber FROM accounts WHERE accountNumber > ? ORDER BY accountNumber LIMIT ?";
+        Map<String, String> owners = new LinkedHashMap<>();
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (accountNumber != null) pstmt.setString(i++, accountNumber);
+            pstmt.setInt(i, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) owners.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        return owners;
+    }
 
-            pstmt.setString(1, customer.getAccountNumber());
-            pstmt.setString(2, customer.getFirstName());
-            pstmt.setString(3, customer.getSurname());
-            pstmt.setString(4, customer.getAddress());
-            pstmt.setString(5, customer.getPIN());
+    /**
+     * Number of accounts numbered up to and including the given one, or all of them when null.
+     */
+    int countAccountsUpTo(String accountNumber) {
+        String sql = accountNumber == null
+                ? "SELECT COUNT(*) FROM accounts"
+                : "SELECT COUNT(*) FROM accounts WHERE accountNumber <= ?";
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (accountNumber != null) pstmt.setString(1, accountNumber);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to count accounts: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    boolean isInterestRunComplete(String runId) {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT completed FROM interest_runs WHERE period = ?")) {
+            pstmt.setString(1, runId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to check interest run: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stores a customer's PIN hash on its own, e.g. after a login re-hashed it at a higher cost.
+     */
+    public void updatePinHash(Customer customer) {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("UPDATE customers SET pin = ? WHERE accountNumber = ?")) {
+            pstmt.setString(1, customer.getPinHash());
+            pstmt.setString(2, customer.getAccountNumber());
             pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to save PIN hash for " + customer.getAccountNumber() + ": " + e.getMessage());
+        }
+    }
 
+    /**
+     * Saves a customer and upserts any of their accounts that are new or changed
+     * (transactions and balance changes are saved by the journal as they happen).
+     */
+    public void saveCustomer(Customer customer) {
+        String sql = "INSERT OR REPLACE INTO customers (accountNumber, firstName, surname, address, pin) VALUES (?, ?, ?, ?, ?)";
+        List<Account> dirty = new ArrayList<>();
+        if (customer.isAccountsLoaded()) { // accounts still in the database can't have changed
+            for (Account account : customer.getAccounts()) {
+                if (account.isDirty()) dirty.add(account);
+            }
+        }
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, customer.getAccountNumber());
+                    pstmt.setString(2, customer.getFirstName());
+                    pstmt.setString(3, customer.getSurname());
+                    pstmt.setString(4, customer.getAddress());
+                    pstmt.setString(5, customer.getPinHash());
+                    pstmt.executeUpdate();
+                }
+                if (!dirty.isEmpty()) {
+                    upsertAccounts(conn, customer, dirty);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            dirty.forEach(Account::markClean);
         } catch (SQLException e) {
             System.err.println("❌ Failed to save customer: " + e.getMessage());
         }
     }
 
+    private static void upsertAccounts(Connection conn, Customer owner, List<Account> accounts) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("""
+                INSERT INTO accounts (accountNumber, balanceCents, branch, customerAccountNumber, type,
+                                      companyAccount, employerName, employerAddress)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (accountNumber) DO UPDATE SET balanceCents = excluded.balanceCents,
+                                                          branch = excluded.branch,
+                                                          customerAccountNumber = excluded.customerAccountNumber
+                """)) {
+            for (Account account : accounts) {
+                pstmt.setString(1, account.getAccountNumber());
+                pstmt.setLong(2, account.getBalanceCents());
+                pstmt.setString(3, account.getBranch());
+                pstmt.setString(4, owner.getAccountNumber());
+                pstmt.setString(5, account.getClass().getSimpleName());
+                pstmt.setBoolean(6, account instanceof SavingsAccount s && s.isCompanyAccount());
+                pstmt.setString(7, account instanceof ChequeAccount c ? c.getEmployerName() : null);
+                pstmt.setString(8, account instanceof ChequeAccount c ? c.getEmployerAddress() : null);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
     /**
      * Saves all customers at shutdown.
      */
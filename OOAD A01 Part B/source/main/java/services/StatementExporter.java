@@ -0,0 +1,378 @@
+// services/StatementExporter.java
+package services;
+
+import entities.TransactionType;
+import utils.DatabaseManager;
+import utils.Money;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes account statements straight from the transactions table to files.
+ * Rows are read with a forward-only cursor in (timestamp, id) order and
+ * encoded into a fixed-size buffer that is written to a FileChannel, so memory
+ * use doesn't depend on the length of the history. Archived years in the range
+ * are read first (see {@link TransactionArchive}). A statement is written to a
+ * ".part" file and renamed when complete.
+ */
+public class StatementExporter {
+
+    /**
+     * Output layouts.
+     */
+    public enum Format {
+        /** accountNumber,date,time,type,amount,balance — debits have a negative amount */
+        CSV(".csv"),
+        /** Printable statement with opening/closing balance and aligned columns */
+        FIXED_WIDTH(".txt");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+    }
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int FLUSH_CHARS = 16 * 1024;
+    private static final int AMOUNT_WIDTH = 16;
+    private static final int TYPE_WIDTH = 20;
+
+    private final Format format;
+
+    public StatementExporter(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Exports one account's transactions between from and to (inclusive).
+     * @param from First day, or null for the start of the history
+     * @param to Last day, or null for the end of the history
+     */
+    public Result export(String accountNumber, LocalDate from, LocalDate to, Path file) throws IOException {
+        TransactionJournal.flushShared(); // Include writes still queued in the journal
+        return write(accountNumber, from, to, file);
+    }
+
+    /**
+     * Exports many accounts in parallel, one file per account in directory,
+     * named after the account number. The number of threads is also the number of
+     * database connections used at once, so keep it within the pool size.
+     * Accounts that fail are reported on stderr and left out of the results.
+     * @return Results in the order of accountNumbers
+     */
+    public List<Result> exportAll(Collection<String> accountNumbers, LocalDate from, LocalDate to,
+                                  Path directory, int threads) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        TransactionJournal.flushShared();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "statement-export-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        try {
+            List<Future<Result>> pending = new ArrayList<>(accountNumbers.size());
+            for (String accountNumber : accountNumbers) {
+                Path file = directory.resolve(accountNumber + format.getExtension());
+                pending.add(pool.submit(() -> write(accountNumber, from, to, file)));
+            }
+            List<Result> results = new ArrayList<>(pending.size());
+            for (Future<Result> future : pending) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    System.err.println("❌ Statement export failed: " + e.getCause().getMessage());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Result write(String accountNumber, LocalDate from, LocalDate to, Path file) throws IOException {
+        LocalDateTime start = from == null ? null : from.atStartOfDay();
+        LocalDateTime end = to == null ? null : to.plusDays(1).atStartOfDay(); // exclusive
+        String fromTimestamp = start == null ? null : start.toString();
+        String toTimestamp = end == null ? null : end.toString();
+        String sql = """
+                SELECT type, amountCents, balanceAfterCents, timestamp FROM transactions
+                WHERE accountNumber = ? AND (? IS NULL OR timestamp >= ?) AND (? IS NULL OR timestamp < ?)
+                ORDER BY timestamp, id
+                """;
+
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        Result result = new Result(accountNumber, file);
+        try (Connection conn = DatabaseManager.getConnection();
+             ChannelWriter out = new ChannelWriter(part)) {
+            Long before = start == null ? null : balanceBefore(conn, accountNumber, start);
+
+            TransactionArchive.forEachPartition(conn, TransactionArchive.overlapping(start, end), false, partition -> {
+                try (PreparedStatement pstmt = partition.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+                    pstmt.setString(1, accountNumber);
+                    pstmt.setString(2, fromTimestamp);
+                    pstmt.setString(3, fromTimestamp);
+                    pstmt.setString(4, toTimestamp);
+                    pstmt.setString(5, toTimestamp);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        writeRows(rs, out, accountNumber, from, to, before, result);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            });
+            if (result.rows == 0) {
+                result.openingCents = before == null ? 0 : before;
+                result.closingCents = result.openingCents;
+                writeHeader(out, accountNumber, from, to, result.openingCents);
+            }
+            writeFooter(out, result);
+            out.flush();
+            result.bytes = out.written;
+        } catch (SQLException e) {
+            Files.deleteIfExists(part);
+            throw new IOException("Failed to read transactions for " + accountNumber + ": " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(part);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return result;
+    }
+
+    private void writeRows(ResultSet rs, ChannelWriter out, String accountNumber, LocalDate from, LocalDate to,
+                           Long before, Result result) throws SQLException, IOException {
+        while (rs.next()) {
+            String type = rs.getString(1);
+            long amount = rs.getLong(2);
+            long balance = rs.getLong(3);
+            long signed = TransactionType.fromLabel(type).isCredit() ? amount : -amount;
+            if (result.rows == 0) {
+                // The first row tells us the opening balance if nothing came before the range
+                result.openingCents = before != null ? before : balance - signed;
+                writeHeader(out, accountNumber, from, to, result.openingCents);
+            }
+            writeRow(out, accountNumber, rs.getString(4), type, signed, balance);
+            if (signed >= 0) result.creditsCents += amount;
+            else result.debitsCents += amount;
+            result.closingCents = balance;
+            result.rows++;
+        }
+    }
+
+    /**
+     * Balance after the account's last transaction before start, or null if there is none.
+     * Looks in the live table first, then archived years from newest to oldest.
+     */
+    private static Long balanceBefore(Connection conn, String accountNumber, LocalDateTime start) throws SQLException {
+        Long[] balance = new Long[1];
+        TransactionArchive.forEachPartition(conn, TransactionArchive.overlapping(null, start), true, partition -> {
+            try (PreparedStatement pstmt = partition.prepareStatement("""
+                    SELECT balanceAfterCents FROM transactions
+                    WHERE accountNumber = ? AND timestamp < ?
+                    ORDER BY timestamp DESC, id DESC LIMIT 1
+                    """)) {
+                pstmt.setString(1, accountNumber);
+                pstmt.setString(2, start.toString());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) balance[0] = rs.getLong(1);
+                }
+            }
+            return balance[0] == null;
+        });
+        return balance[0];
+    }
+
+    // ----- Layout -----
+
+    private void writeHeader(ChannelWriter out, String accountNumber, LocalDate from, LocalDate to,
+                             long openingCents) throws IOException {
+        StringBuilder sb = out.line();
+        if (format == Format.CSV) {
+            sb.append("accountNumber,date,time,type,amount,balance\n");
+        } else {
+            sb.append("Statement for ").append(accountNumber).append("   ")
+                    .append(from == null ? "start" : from).append(" to ").append(to == null ? "today" : to).append('\n');
+            pad(sb, "Opening balance", 10 + 1 + 8 + 2 + TYPE_WIDTH + AMOUNT_WIDTH, false);
+            pad(sb, Money.format(openingCents), AMOUNT_WIDTH, true).append('\n');
+            pad(sb, "DATE", 11, false);
+            pad(sb, "TIME", 10, false);
+            pad(sb, "TYPE", TYPE_WIDTH, false);
+            pad(sb, "AMOUNT", AMOUNT_WIDTH, true);
+            pad(sb, "BALANCE", AMOUNT_WIDTH, true).append('\n');
+        }
+        out.endLine();
+    }
+
+    private void writeRow(ChannelWriter out, String accountNumber, String timestamp, String type,
+                          long signedCents, long balanceCents) throws IOException {
+        // Stored timestamps are ISO local date-times; seconds may be missing when they are zero
+        String date = timestamp.substring(0, 10);
+        String time = timestamp.length() >= 19 ? timestamp.substring(11, 19) : timestamp.substring(11) + ":00";
+        StringBuilder sb = out.line();
+        if (format == Format.CSV) {
+            sb.append(accountNumber).append(',').append(date).append(',').append(time).append(',')
+                    .append(type).append(',').append(Money.format(signedCents)).append(',')
+                    .append(Money.format(balanceCents)).append('\n');
+        } else {
+            pad(sb, date, 11, false);
+            pad(sb, time, 10, false);
+            pad(sb, type, TYPE_WIDTH, false);
+            pad(sb, Money.format(signedCents), AMOUNT_WIDTH, true);
+            pad(sb, Money.format(balanceCents), AMOUNT_WIDTH, true).append('\n');
+        }
+        out.endLine();
+    }
+
+    private void writeFooter(ChannelWriter out, Result result) throws IOException {
+        if (format == Format.CSV) return;
+        StringBuilder sb = out.line();
+        pad(sb, "Closing balance", 10 + 1 + 8 + 2 + TYPE_WIDTH + AMOUNT_WIDTH, false);
+        pad(sb, Money.format(result.closingCents), AMOUNT_WIDTH, true).append('\n');
+        sb.append("Credits ").append(Money.format(result.creditsCents))
+                .append("   Debits ").append(Money.format(result.debitsCents))
+                .append("   Transactions ").append(result.rows).append('\n');
+        out.endLine();
+    }
+
+    /**
+     * Appends text padded (or cut) to width, right-aligned or followed by the padding.
+     */
+    private static StringBuilder pad(StringBuilder sb, String text, int width, boolean rightAlign) {
+        String value = text.length() > width ? text.substring(0, width) : text;
+        if (rightAlign) sb.append(" ".repeat(width - value.length())).append(value);
+        else sb.append(value).append(" ".repeat(width - value.length()));
+        return sb;
+    }
+
+    /**
+     * Encodes text into a fixed direct buffer and writes it to a file channel
+     * whenever the buffer fills up. Lines are collected in a small StringBuilder
+     * that is encoded once it reaches FLUSH_CHARS.
+     */
+    private static final class ChannelWriter implements Closeable {
+        private final FileChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final StringBuilder pending = new StringBuilder(FLUSH_CHARS + 256);
+        long written;
+
+        ChannelWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        StringBuilder line() {
+            return pending;
+        }
+
+        void endLine() throws IOException {
+            if (pending.length() >= FLUSH_CHARS) encodePending();
+        }
+
+        private void encodePending() throws IOException {
+            CharBuffer in = CharBuffer.wrap(pending);
+            encoder.reset();
+            CoderResult result;
+            while ((result = encoder.encode(in, bytes, true)).isOverflow()) drain();
+            if (result.isError()) result.throwException();
+            while (encoder.flush(bytes).isOverflow()) drain();
+            pending.setLength(0);
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) written += channel.write(bytes);
+            bytes.clear();
+        }
+
+        /**
+         * Writes everything buffered so far to the channel.
+         */
+        void flush() throws IOException {
+            encodePending();
+            drain();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * What was written for one account.
+     */
+    public static class Result {
+        private final String accountNumber;
+        private final Path file;
+        long rows;
+        long bytes;
+        long openingCents;
+        long closingCents;
+        long creditsCents;
+        long debitsCents;
+
+        Result(String accountNumber, Path file) {
+            this.accountNumber = accountNumber;
+            this.file = file;
+        }
+
+        public String getAccountNumber() { return accountNumber; }
+        public Path getFile() { return file; }
+        public long getRows() { return rows; }
+        public long getBytes() { return bytes; }
+        public long getOpeningCents() { return openingCents; }
+        public long getClosingCents() { return closingCents; }
+        public long getCreditsCents() { return creditsCents; }
+        public long getDebitsCents() { return debitsCents; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %,d transactions, opening %s, closing %s BWP -> %s",
+                    accountNumber, rows, Money.format(openingCents), Money.format(closingCents), file);
+        }
+    }
+}
@@ -0,0 +1,494 @@
+// services/TransactionArchive.java
+package services;
+
+import org.sqlite.SQLiteConfig;
+import utils.DatabaseManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves closed years of history out of the live transactions table into one
+ * SQLite file per year, stored gzip-compressed and read-only in the archive
+ * directory (-Dbanking.archive.dir, default "archive"). The live table then
+ * only holds open years, so inserts and recent-history reads don't slow down
+ * as the bank gets older. Archived years are listed in transaction_archives
+ * with the SHA-256 of the uncompressed file, which also goes into the file
+ * name, so databases sharing an archive directory never use or overwrite each
+ * other's archives; an existing archive file is never replaced.
+ *
+ * History reads go through {@link #forEachPartition}, which visits the archived
+ * years a read needs, oldest first, and then the live table. An archive is
+ * decompressed into a local cache (-Dbanking.archive.cacheDir), checked against
+ * its checksum, the first time it is read and opened read-only.
+ */
+public class TransactionArchive {
+    private static final String ARCHIVE_SCHEMA = """
+            CREATE TABLE transactions (
+                id INTEGER PRIMARY KEY,
+                type TEXT NOT NULL,
+                amountCents INTEGER NOT NULL,
+                balanceAfterCents INTEGER NOT NULL,
+                timestamp TEXT NOT NULL,
+                accountNumber TEXT
+            )
+            """;
+    private static final String ARCHIVE_INDEX =
+            "CREATE INDEX idx_transactions_account_time ON transactions (accountNumber, timestamp, id)";
+    private static final int COPY_BATCH = 10_000;
+
+    // Idle read-only connections per archive (see poolKey)
+    private static final Map<String, Queue<Connection>> OPEN_ARCHIVES = new ConcurrentHashMap<>();
+
+    /**
+     * One archived year as recorded in transaction_archives.
+     */
+    public static class ArchivedYear {
+        private final int year;
+        private final String fileName;
+        private final long rowCount;
+        private final long minId;
+        private final long maxId;
+        private final long sizeBytes;
+        private final String checksum; // null for archives made before checksums were recorded
+
+        ArchivedYear(int year, String fileName, long rowCount, long minId, long maxId, long sizeBytes,
+                     String checksum) {
+            this.year = year;
+            this.fileName = fileName;
+            this.rowCount = rowCount;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.sizeBytes = sizeBytes;
+            this.checksum = checksum;
+        }
+
+        public int getYear() { return year; }
+        public long getRowCount() { return rowCount; }
+        public long getMinId() { return minId; }
+        public long getMaxId() { return maxId; }
+        public Path getFile() { return archiveDirectory().resolve(fileName); }
+        public String getChecksum() { return checksum; }
+
+        /** Whether the year can hold rows from [from, to); either end may be null. */
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            LocalDateTime start = LocalDate.of(year, 1, 1).atStartOfDay();
+            return (from == null || start.plusYears(1).isAfter(from)) && (to == null || start.isBefore(to));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d: %,d transactions (ids %d-%d) in %s", year, rowCount, minId, maxId, getFile());
+        }
+    }
+
+    /**
+     * Reads one partition of the transactions table.
+     */
+    @FunctionalInterface
+    interface PartitionQuery {
+        /** @return false to skip the remaining partitions */
+        boolean read(Connection conn) throws SQLException;
+    }
+
+    public static Path archiveDirectory() {
+        return Path.of(System.getProperty("banking.archive.dir", "archive"));
+    }
+
+    private static Path cacheDirectory() {
+        return Path.of(System.getProperty("banking.archive.cacheDir",
+                Path.of(System.getProperty("java.io.tmpdir"), "banking-archive-cache").toString()));
+    }
+
+    /**
+     * Archived years, oldest first.
+     */
+    public static List<ArchivedYear> list() {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            return list(conn);
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to list transaction archives: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static List<ArchivedYear> list(Connection conn) throws SQLException {
+        List<ArchivedYear> years = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                     SELECT year, fileName, rowCount, minId, maxId, sizeBytes, checksum
+                     FROM transaction_archives ORDER BY year
+                     """)) {
+            while (rs.next()) {
+                years.add(new ArchivedYear(rs.getInt(1), rs.getString(2), rs.getLong(3),
+                        rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getString(7)));
+            }
+        }
+        return years;
+    }
+
+    /**
+     * Runs query on each archived year that include accepts and then on the live
+     * table (connection live), oldest first or newest first. The catalog and the
+     * live table are read in one read transaction, so a year being archived at the
+     * same time is seen either in the live table or in its archive, exactly once.
+     */
+    static void forEachPartition(Connection live, Predicate<ArchivedYear> include, boolean newestFirst,
+                                 PartitionQuery query) throws SQLException {
+        boolean autoCommit = live.getAutoCommit();
+        if (autoCommit) live.setAutoCommit(false);
+        try {
+            List<ArchivedYear> years = list(live);
+            years.removeIf(include.negate());
+            if (newestFirst) {
+                if (!query.read(live)) return;
+                for (int i = years.size() - 1; i >= 0; i--) {
+                    if (!readArchive(years.get(i), query)) return;
+                }
+            } else {
+                for (ArchivedYear year : years) {
+                    if (!readArchive(year, query)) return;
+                }
+                query.read(live);
+            }
+        } finally {
+            if (autoCommit) {
+                live.commit();
+                live.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Matches archived years that may hold rows from [from, to); either end may be null.
+     */
+    static Predicate<ArchivedYear> overlapping(LocalDateTime from, LocalDateTime to) {
+        return year -> year.overlaps(from, to);
+    }
+
+    /**
+     * Highest transaction id stored in any archive (0 if none).
+     */
+    static long maxArchivedId(Connection live) throws SQLException {
+        try (Statement stmt = live.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(maxId), 0) FROM transaction_archives")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * First moment not covered by an archive, or null when nothing is archived.
+     */
+    static LocalDateTime liveFrom(Connection live) throws SQLException {
+        try (Statement stmt = live.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(year) FROM transaction_archives")) {
+            if (!rs.next() || rs.getObject(1) == null) return null;
+            return LocalDate.of(rs.getInt(1) + 1, 1, 1).atStartOfDay();
+        }
+    }
+
+    // ----- Archiving -----
+
+    /**
+     * Years that have ended (at least a day ago) and still have rows in the live table, oldest first.
+     */
+    public List<Integer> closedYearsInLiveTable() throws SQLException {
+        List<Integer> years = new ArrayList<>();
+        int currentYear = LocalDate.now().minusDays(1).getYear();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT MIN(timestamp) FROM transactions WHERE timestamp >= ?")) {
+            String from = "";
+            while (true) {
+                pstmt.setString(1, from);
+                String first;
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    first = rs.next() ? rs.getString(1) : null;
+                }
+                if (first == null) break;
+                int year = Integer.parseInt(first.substring(0, 4));
+                if (year >= currentYear) break;
+                years.add(year);
+                from = LocalDate.of(year + 1, 1, 1).atStartOfDay().toString();
+            }
+        }
+        return years;
+    }
+
+    /**
+     * Moves one closed year out of the live table. The year's rows are copied to a
+     * new SQLite file, which is compacted, compressed and made read-only; then, in
+     * one transaction, the year is recorded in transaction_archives and its rows are
+     * deleted from the live table. Earlier years must already be archived.
+     *
+     * The final delete holds the database's write lock, so run this when the bank
+     * is quiet: queued journal writes wait for it (up to the busy timeout).
+     * @throws IllegalArgumentException if the year hasn't ended at least a day ago
+     * @throws IllegalStateException if the year is already archived, an earlier year
+     *         isn't, the year has no transactions, or its archive file already exists
+     */
+    public ArchivedYear archiveYear(int year) throws IOException, SQLException {
+        LocalDateTime start = LocalDate.of(year, 1, 1).atStartOfDay();
+        LocalDateTime end = start.plusYears(1);
+        if (!LocalDate.now().isAfter(end.toLocalDate())) {
+            throw new IllegalArgumentException(year + " is not closed yet.");
+        }
+        String startTs = start.toString();
+        String endTs = end.toString();
+
+        try (Connection live = DatabaseManager.getConnection()) {
+            for (ArchivedYear archived : list(live)) {
+                if (archived.year == year) throw new IllegalStateException(year + " is already archived.");
+            }
+            long[] span = idSpan(live, "", startTs); // anything older must go first
+            if (span[2] > 0) throw new IllegalStateException("Archive the years before " + year + " first.");
+            span = idSpan(live, startTs, endTs);
+            if (span[2] == 0) throw new IllegalStateException("No transactions in " + year + ".");
+            long minId = span[0];
+            long maxId = span[1];
+
+            Path dir = archiveDirectory();
+            Files.createDirectories(dir);
+            // Temp files are unique, so concurrent runs against other databases don't collide
+            Path db = Files.createTempFile(dir, "transactions-" + year + "-", ".db.tmp");
+            Path gzTmp = Files.createTempFile(dir, "transactions-" + year + "-", ".db.gz.tmp");
+            long copied;
+            long sizeBytes;
+            String checksum;
+            String fileName;
+            try {
+                copied = copyYear(live, db, startTs, endTs, maxId);
+                sizeBytes = Files.size(db);
+                MessageDigest digest = sha256();
+                try (InputStream in = new DigestInputStream(Files.newInputStream(db), digest);
+                     OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzTmp), 64 * 1024)) {
+                    in.transferTo(out);
+                }
+                checksum = HexFormat.of().formatHex(digest.digest());
+                fileName = "transactions-" + year + "-" + checksum.substring(0, 16) + ".db.gz";
+                Path gz = dir.resolve(fileName);
+                if (Files.exists(gz)) {
+                    throw new IllegalStateException(gz + " already exists; refusing to overwrite it.");
+                }
+                Files.move(gzTmp, gz); // fails rather than replacing a file that appeared meanwhile
+                gz.toFile().setReadOnly();
+            } finally {
+                Files.deleteIfExists(db);
+                Files.deleteIfExists(gzTmp);
+            }
+
+            live.setAutoCommit(false);
+            try {
+                int deleted;
+                try (PreparedStatement delete = live.prepareStatement("""
+                        DELETE FROM transactions
+                        WHERE id BETWEEN ? AND ? AND timestamp >= ? AND timestamp < ?
+                        """)) {
+                    delete.setLong(1, minId);
+                    delete.setLong(2, maxId);
+                    delete.setString(3, startTs);
+                    delete.setString(4, endTs);
+                    deleted = delete.executeUpdate();
+                }
+                if (deleted != copied) {
+                    throw new IllegalStateException("Archived " + copied + " rows for " + year
+                            + " but " + deleted + " matched for deletion; nothing was changed.");
+                }
+                try (PreparedStatement insert = live.prepareStatement("""
+                        INSERT INTO transaction_archives
+                            (year, fileName, rowCount, minId, maxId, sizeBytes, archivedAt, checksum)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                        """)) {
+                    insert.setInt(1, year);
+                    insert.setString(2, fileName);
+                    insert.setLong(3, copied);
+                    insert.setLong(4, minId);
+                    insert.setLong(5, maxId);
+                    insert.setLong(6, sizeBytes);
+                    insert.setString(7, LocalDateTime.now().toString());
+                    insert.setString(8, checksum);
+                    insert.executeUpdate();
+                }
+                live.commit();
+            } catch (SQLException | RuntimeException e) {
+                live.rollback();
+                throw e;
+            } finally {
+                live.setAutoCommit(true);
+            }
+            return new ArchivedYear(year, fileName, copied, minId, maxId, sizeBytes, checksum);
+        }
+    }
+
+    /**
+     * Lowest id, highest id and number of live rows with a timestamp in [from, to).
+     */
+    private static long[] idSpan(Connection live, String from, String to) throws SQLException {
+        try (PreparedStatement pstmt = live.prepareStatement(
+                "SELECT MIN(id), MAX(id), COUNT(*) FROM transactions WHERE timestamp >= ? AND timestamp < ?")) {
+            pstmt.setString(1, from);
+            pstmt.setString(2, to);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)};
+            }
+        }
+    }
+
+    /**
+     * Copies the live rows in [startTs, endTs) with id up to maxId into a new
+     * SQLite file, indexes and compacts it.
+     * @return Rows copied
+     */
+    private static long copyYear(Connection live, Path db, String startTs, String endTs, long maxId) throws SQLException {
+        long copied = 0;
+        try (Connection archive = DriverManager.getConnection("jdbc:sqlite:" + db)) {
+            try (Statement stmt = archive.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = OFF"); // a half-written file is simply rebuilt
+                stmt.execute(ARCHIVE_SCHEMA);
+            }
+            archive.setAutoCommit(false);
+            try (PreparedStatement select = live.prepareStatement("""
+                         SELECT id, type, amountCents, balanceAfterCents, timestamp, accountNumber
+                         FROM transactions WHERE timestamp >= ? AND timestamp < ? AND id <= ? ORDER BY id
+                         """);
+                 PreparedStatement insert = archive.prepareStatement(
+                         "INSERT INTO transactions VALUES (?, ?, ?, ?, ?, ?)")) {
+                select.setString(1, startTs);
+                select.setString(2, endTs);
+                select.setLong(3, maxId);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        insert.setLong(1, rs.getLong(1));
+                        insert.setString(2, rs.getString(2));
+                        insert.setLong(3, rs.getLong(3));
+                        insert.setLong(4, rs.getLong(4));
+                        insert.setString(5, rs.getString(5));
+                        insert.setString(6, rs.getString(6));
+                        insert.addBatch();
+                        if (++copied % COPY_BATCH == 0) insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            archive.commit();
+            archive.setAutoCommit(true);
+            try (Statement stmt = archive.createStatement()) {
+                stmt.execute(ARCHIVE_INDEX);
+                stmt.execute("VACUUM");
+            }
+        }
+        return copied;
+    }
+
+    // ----- Reading -----
+
+    private static boolean readArchive(ArchivedYear year, PartitionQuery query) throws SQLException {
+        Connection conn = borrow(year);
+        boolean more;
+        try {
+            more = query.read(conn);
+        } catch (SQLException | RuntimeException e) {
+            conn.close();
+            throw e;
+        }
+        OPEN_ARCHIVES.computeIfAbsent(poolKey(year), k -> new ConcurrentLinkedQueue<>()).offer(conn);
+        return more;
+    }
+
+    /**
+     * Identifies an archive across databases: its checksum, or for an archive
+     * without one, the year within the current database.
+     */
+    private static String poolKey(ArchivedYear year) {
+        return year.checksum != null ? year.checksum : DatabaseManager.getUrl() + "#" + year.year;
+    }
+
+    private static Connection borrow(ArchivedYear year) throws SQLException {
+        Queue<Connection> idle = OPEN_ARCHIVES.get(poolKey(year));
+        Connection conn = idle == null ? null : idle.poll();
+        if (conn != null) return conn;
+
+        Path file;
+        try {
+            file = cachedCopy(year);
+        } catch (IOException e) {
+            throw new SQLException("Could not open the " + year.year + " archive: " + e.getMessage(), e);
+        }
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        return DriverManager.getConnection("jdbc:sqlite:" + file, config.toProperties());
+    }
+
+    /**
+     * Decompresses the year's archive into the cache directory, unless a complete
+     * copy is already there. Copies are named by checksum, so the cache can be
+     * shared by several databases; a decompressed archive that doesn't match its
+     * checksum is rejected. An archive without a checksum is named by the
+     * checksum of its compressed file instead.
+     */
+    private static synchronized Path cachedCopy(ArchivedYear year) throws IOException {
+        Path dir = cacheDirectory();
+        String key = year.checksum != null ? year.checksum : "gz-" + checksumOf(year.getFile());
+        Path copy = dir.resolve("transactions-" + year.year + "-" + key + ".db");
+        if (Files.exists(copy) && Files.size(copy) == year.sizeBytes) return copy;
+
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "transactions-" + year.year + "-", ".db.tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(
+                    new GZIPInputStream(Files.newInputStream(year.getFile()), 64 * 1024), digest)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (year.checksum != null && !year.checksum.equals(HexFormat.of().formatHex(digest.digest()))) {
+                throw new IOException(year.getFile() + " does not match the checksum recorded for " + year.year + ".");
+            }
+            Files.move(tmp, copy, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return copy;
+    }
+
+    private static String checksumOf(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
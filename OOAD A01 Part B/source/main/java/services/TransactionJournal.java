@@ -0,0 +1,366 @@
+// services/TransactionJournal.java
+package services;
+
+import entities.Transaction;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind journal for transaction rows.
+ * Accounts append here instead of writing to SQLite themselves; a background
+ * writer drains the queue and stores each batch in a single SQLite transaction.
+ * Queueing holds the read side of a lock and close() the write side, so nothing
+ * is queued after the writer has been told to stop; once closed, rows are
+ * written on the caller's thread. A batch that fails is retried a few times;
+ * if it still fails, everyone waiting on its rows gets an exception.
+ */
+public class TransactionJournal {
+
+    /**
+     * How long append() waits before returning.
+     */
+    public enum DurabilityMode {
+        /** Write on the caller's thread before returning. */
+        SYNC,
+        /** Queue, then wait for the batch commit (at most every interval ms). */
+        GROUP_COMMIT,
+        /** Queue and return at once; the row is written shortly after. */
+        ASYNC
+    }
+
+    private static final int MAX_BATCH = 1_000;
+    private static final long WRITER_CHECK_MILLIS = 100; // how often waits check that the writer is alive
+    private static final int WRITE_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 50;
+    private static volatile TransactionJournal instance; // read without the class lock on every append
+
+    private final DurabilityMode mode;
+    private final long groupCommitMillis;
+    private final BlockingQueue<Entry> queue;
+    private final PersistenceService persistenceService = new PersistenceService();
+    private final Thread writer;
+    private final ReentrantReadWriteLock state = new ReentrantReadWriteLock();
+    private volatile boolean running = true; // cleared under the write lock
+
+    public TransactionJournal(DurabilityMode mode, long groupCommitMillis, int capacity) {
+        this.mode = mode;
+        this.groupCommitMillis = groupCommitMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::runWriter, "transaction-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Shared journal, configured from the banking.journal.mode (sync|group_commit|async),
+     * banking.journal.intervalMs and banking.journal.capacity system properties.
+     * Only the first call takes the class lock.
+     */
+    public static TransactionJournal getInstance() {
+        TransactionJournal journal = instance;
+        if (journal != null) return journal;
+        synchronized (TransactionJournal.class) {
+            if (instance == null) {
+                DurabilityMode mode = DurabilityMode.valueOf(
+                        System.getProperty("banking.journal.mode", "group_commit").toUpperCase());
+                instance = new TransactionJournal(mode,
+                        Long.getLong("banking.journal.intervalMs", 5),
+                        Integer.getInteger("banking.journal.capacity", 10_000));
+                Runtime.getRuntime().addShutdownHook(new Thread(TransactionJournal::shutdown));
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Replaces the shared journal, closing the previous one first.
+     */
+    public static synchronized void configure(DurabilityMode mode, long groupCommitMillis, int capacity) {
+        shutdown();
+        instance = new TransactionJournal(mode, groupCommitMillis, capacity);
+    }
+
+    /**
+     * Flushes and stops the shared journal, if one was started.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Flushes the shared journal if one was started. Unlike getInstance().flush(),
+     * never starts a journal, so it is safe to call from shutdown hooks; holding
+     * the class lock keeps a concurrent shutdown() from closing it mid-flush.
+     */
+    public static synchronized void flushShared() {
+        if (instance != null) instance.flush();
+    }
+
+    /**
+     * Records a transaction for the given account.
+     * Blocks while the queue is full, so a slow disk pushes back on callers;
+     * interrupts don't stop it once the account has changed.
+     * @throws IllegalStateException if the row could not be saved
+     */
+    public void append(Transaction transaction, String accountNumber) {
+        submit(transaction, accountNumber).awaitWritten();
+    }
+
+    /**
+     * Queues a transaction without waiting for it to be written.
+     * Callers holding an account lock submit under the lock, so rows keep the
+     * account's order, and call awaitWritten() on the result after releasing it.
+     */
+    public Entry submit(Transaction transaction, String accountNumber) {
+        if (mode != DurabilityMode.SYNC) {
+            state.readLock().lock();
+            try {
+                if (running) {
+                    Entry entry = new Entry(transaction, accountNumber, mode == DurabilityMode.GROUP_COMMIT);
+                    enqueue(entry);
+                    return entry;
+                }
+            } finally {
+                state.readLock().unlock();
+            }
+        }
+        Entry entry = new Entry(transaction, accountNumber, false);
+        Exception failure = save(1, () -> persistenceService.saveTransaction(transaction, accountNumber));
+        if (failure != null) entry.markFailed(failure);
+        return entry;
+    }
+
+    /**
+     * Queues the two legs of a transfer as one entry, so they are always
+     * written in the same SQLite transaction.
+     */
+    public Entry submitTransfer(Transaction debit, String fromAccountNumber,
+                                Transaction credit, String toAccountNumber) {
+        Entry entry = new Entry(debit, fromAccountNumber, mode == DurabilityMode.GROUP_COMMIT);
+        entry.linked = new Entry(credit, toAccountNumber, false);
+        if (mode != DurabilityMode.SYNC) {
+            state.readLock().lock();
+            try {
+                if (running) {
+                    enqueue(entry);
+                    return entry;
+                }
+            } finally {
+                state.readLock().unlock();
+            }
+        }
+        List<Entry> legs = List.of(entry, entry.linked);
+        Exception failure = save(2, () -> persistenceService.saveTransactions(legs));
+        if (failure == null) entry.markWritten();
+        else entry.markFailed(failure);
+        return entry;
+    }
+
+    /**
+     * Waits until everything appended so far has been written.
+     * Returns at once after close(), when nothing is queued any more.
+     * @throws IllegalStateException if the background writer has died
+     */
+    public void flush() {
+        Entry marker = new Entry(null, null, true);
+        state.readLock().lock();
+        try {
+            if (!running) return;
+            enqueue(marker);
+        } finally {
+            state.readLock().unlock();
+        }
+        marker.awaitWritten();
+    }
+
+    /**
+     * Writes out the queue and stops the background writer. The writer empties
+     * the queue before it exits; anything still left (if it died) is written here.
+     */
+    public void close() {
+        state.writeLock().lock();
+        try {
+            if (!running) return;
+            running = false;
+        } finally {
+            state.writeLock().unlock();
+        }
+        queue.offer(new Entry(null, null, false)); // wakes a writer waiting on an empty queue
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        List<Entry> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) writeBatch(rest);
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    public DurabilityMode getMode() { return mode; }
+    public int getQueuedCount() { return queue.size(); }
+
+    /**
+     * Waits for room in the queue, ignoring interrupts until the entry is in:
+     * callers have already changed the account, so the row must not be lost.
+     * The interrupt status is restored afterwards. Call with the read lock held.
+     * @throws IllegalStateException if the background writer has died
+     */
+    private void enqueue(Entry entry) {
+        entry.writer = writer;
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (queue.offer(entry, WRITER_CHECK_MILLIS, TimeUnit.MILLISECONDS)) break;
+                    if (!writer.isAlive()) throw new IllegalStateException("The transaction journal writer has stopped.");
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.take();
+                batch.add(first);
+
+                // Hold the batch open for the group commit window to pick up more rows
+                if (mode == DurabilityMode.GROUP_COMMIT) {
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+                    long remaining;
+                    while (batch.size() < MAX_BATCH && (remaining = deadline - System.nanoTime()) > 0) {
+                        Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                }
+                queue.drainTo(batch, MAX_BATCH - batch.size());
+            } catch (InterruptedException e) {
+                continue; // only close() stops the writer
+            }
+
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        List<Entry> rows = new ArrayList<>(batch.size());
+        for (Entry e : batch) {
+            if (e.transaction != null) rows.add(e);
+            if (e.linked != null) rows.add(e.linked);
+        }
+        Exception failure = rows.isEmpty() ? null : save(rows.size(), () -> persistenceService.saveTransactions(rows));
+        for (Entry e : batch) {
+            if (failure == null) e.markWritten();
+            else e.markFailed(failure); // includes flush markers: not everything before them was written
+        }
+    }
+
+    /**
+     * One attempt at saving rows in a single SQLite transaction.
+     */
+    @FunctionalInterface
+    private interface RowWrite {
+        void run() throws SQLException;
+    }
+
+    /**
+     * Runs a save, retrying a failed attempt (e.g. SQLITE_BUSY).
+     * @return null once saved, or the last failure
+     */
+    private static Exception save(int rowCount, RowWrite write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write.run();
+                return null;
+            } catch (SQLException | RuntimeException e) {
+                if (attempt == WRITE_ATTEMPTS) {
+                    System.err.println("❌ Failed to save " + rowCount + " transactions: " + e.getMessage());
+                    return e;
+                }
+            }
+            try {
+                Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * A queued transaction row. Entries with no transaction are flush markers.
+     */
+    public static class Entry {
+        final Transaction transaction;
+        final String accountNumber;
+        Entry linked; // second leg of a transfer, written in the same batch
+        private final CountDownLatch written;
+        private volatile Thread writer; // set when queued; null if written on the caller's thread
+        private volatile Exception failure;
+
+        Entry(Transaction transaction, String accountNumber, boolean awaitable) {
+            this.transaction = transaction;
+            this.accountNumber = accountNumber;
+            this.written = awaitable ? new CountDownLatch(1) : null;
+        }
+
+        void markWritten() {
+            if (written != null) written.countDown();
+        }
+
+        void markFailed(Exception e) {
+            failure = e;
+            if (written != null) written.countDown();
+        }
+
+        /**
+         * Blocks until the row is written (no-op for ASYNC entries, which
+         * report failures only to the log).
+         * @throws IllegalStateException if the row could not be saved, or the
+         *         writer died before writing it
+         */
+        public void awaitWritten() {
+            if (written == null) {
+                throwIfFailed();
+                return;
+            }
+            try {
+                while (!written.await(WRITER_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                    Thread w = writer;
+                    if (w != null && !w.isAlive() && written.getCount() > 0) {
+                        throw new IllegalStateException("The transaction journal writer stopped before the row was written.");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            throwIfFailed();
+        }
+
+        private void throwIfFailed() {
+            Exception e = failure;
+            if (e != null) throw new IllegalStateException("The transaction could not be saved: " + e.getMessage(), e);
+        }
+    }
+}
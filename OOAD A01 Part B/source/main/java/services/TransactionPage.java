@@ -0,0 +1,31 @@
+// services/TransactionPage.java
+package services;
+
+import entities.Transaction;
+
+import java.util.List;
+
+/**
+ * One page of an account's history in chronological order.
+ * Also acts as the keyset cursor for the page that follows it.
+ */
+public class TransactionPage {
+    private final List<Transaction> transactions;
+    private final String lastTimestamp;
+    private final long lastId;
+    private final boolean hasMore;
+
+    public TransactionPage(List<Transaction> transactions, String lastTimestamp, long lastId, boolean hasMore) {
+        this.transactions = transactions;
+        this.lastTimestamp = lastTimestamp;
+        this.lastId = lastId;
+        this.hasMore = hasMore;
+    }
+
+    public List<Transaction> getTransactions() { return transactions; }
+    public boolean hasMore() { return hasMore; }
+
+    // Keyset position of the last row, used to fetch the next page
+    String getLastTimestamp() { return lastTimestamp; }
+    long getLastId() { return lastId; }
+}
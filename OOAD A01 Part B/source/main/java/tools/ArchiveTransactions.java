@@ -0,0 +1,51 @@
+// tools/ArchiveTransactions.java
+package tools;
+
+import services.TransactionArchive;
+import utils.DatabaseManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves closed years of transactions out of the live table into compressed
+ * per-year archive files (see TransactionArchive). Each year's final step holds
+ * the database write lock while its rows are deleted, so run this during a quiet
+ * period, e.g. early January before opening.
+ * Usage: ArchiveTransactions [year ...] [--list]
+ * Without years every closed year still in the live table is archived, oldest first.
+ * --list only prints the years already archived.
+ * Use -Dbanking.db.url and -Dbanking.archive.dir to choose the database and archive directory.
+ */
+public class ArchiveTransactions {
+
+    public static void main(String[] args) throws Exception {
+        boolean listOnly = false;
+        List<Integer> years = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--list")) listOnly = true;
+            else years.add(Integer.parseInt(arg));
+        }
+
+        DatabaseManager.initialize();
+        TransactionArchive archive = new TransactionArchive();
+        if (!listOnly) {
+            if (years.isEmpty()) years = archive.closedYearsInLiveTable();
+            if (years.isEmpty()) System.out.println("Nothing to archive.");
+            for (int year : years) {
+                long start = System.nanoTime();
+                try {
+                    TransactionArchive.ArchivedYear archived = archive.archiveYear(year);
+                    System.out.printf("✅ Archived %s in %.1f s%n", archived, (System.nanoTime() - start) / 1e9);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    System.err.println("❌ " + e.getMessage());
+                    break;
+                }
+            }
+        }
+
+        System.out.println("Archived years in " + TransactionArchive.archiveDirectory().toAbsolutePath() + ":");
+        TransactionArchive.list().forEach(y -> System.out.println("  " + y));
+        DatabaseManager.shutdown();
+    }
+}
@@ -0,0 +1,63 @@
+// tools/BankingServer.java
+package tools;
+
+import api.BankingHttpServer;
+import controllers.BankingFacade;
+import services.BankTeller;
+import services.CustomerRegistry;
+import services.LedgerSnapshot;
+import services.PersistenceService;
+import services.TransactionJournal;
+import utils.DatabaseManager;
+import utils.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Headless banking service: loads the ledger, serves the HTTP/JSON API and
+ * saves everything on shutdown (Ctrl+C). Also reachable as "Main --server".
+ * Usage: BankingServer [--port=8080]
+ * Binds to 127.0.0.1 unless -Dbanking.api.host is set; the teller PIN for
+ * account opening is -Dbanking.teller.pin. With -Dbanking.cache.maxMegabytes
+ * customers are loaded on demand into a bounded cache instead of all at start.
+ */
+public class BankingServer {
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) port = Integer.parseInt(arg.substring("--port=".length()));
+        }
+        String host = System.getProperty("banking.api.host", "127.0.0.1");
+        Path snapshotFile = Path.of(System.getProperty("banking.snapshot.file", "banking.snapshot"));
+
+        DatabaseManager.initialize();
+        PersistenceService persistenceService = new PersistenceService();
+        CustomerRegistry customers = CustomerRegistry.open(persistenceService, snapshotFile);
+        BankingHttpServer server = new BankingHttpServer(new BankingFacade(customers, new BankTeller()), host, port);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(2);
+            customers.shutdown();
+            persistenceService.saveAllCustomers(new ArrayList<>(customers.all()));
+            if (customers.isFullyLoaded()) {
+                try {
+                    LedgerSnapshot.write(snapshotFile, customers.all());
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("❌ Failed to write snapshot: " + e.getMessage());
+                }
+            } else if (customers.isBounded()) {
+                System.out.println(customers.getCacheStats());
+            }
+            TransactionJournal.shutdown();
+            System.out.println(Metrics.report());
+            DatabaseManager.shutdown();
+        }, "server-shutdown"));
+
+        server.start();
+        System.out.printf("✅ Banking API listening on http://%s:%d/api/ (%d customers loaded)%n",
+                host, server.getPort(), customers.size());
+    }
+}
@@ -0,0 +1,59 @@
+// tools/BatchIngest.java
+package tools;
+
+import entities.Account;
+import entities.Customer;
+import services.IngestPipeline;
+import services.PersistenceService;
+import services.TransactionJournal;
+import utils.DatabaseManager;
+import utils.Metrics;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Headless ingestion of deposit/withdrawal files (e.g. payroll credits).
+ * Usage: BatchIngest inputFile [csv|fixed] [rejectFile] [workers]
+ * Rejected rows are written to rejectFile (default: inputFile + ".rejects.csv").
+ * Use -Dbanking.db.url to point at a database other than banking.db.
+ */
+public class BatchIngest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: BatchIngest inputFile [csv|fixed] [rejectFile] [workers]");
+            System.exit(2);
+        }
+        Path input = Path.of(args[0]);
+        IngestPipeline.Format format = args.length > 1 && args[1].equalsIgnoreCase("fixed")
+                ? IngestPipeline.Format.FIXED_WIDTH : IngestPipeline.Format.CSV;
+        Path rejects = args.length > 2 ? Path.of(args[2]) : Path.of(args[0] + ".rejects.csv");
+        int workers = args.length > 3 ? Integer.parseInt(args[3])
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+
+        DatabaseManager.initialize();
+        // Apply workers shouldn't wait on each commit; the run flushes the journal before reporting
+        TransactionJournal.configure(TransactionJournal.DurabilityMode.ASYNC, 0, 50_000);
+
+        List<Customer> customers = new PersistenceService().loadAllCustomers();
+        Map<String, Account> accounts = new HashMap<>();
+        for (Customer c : customers) {
+            for (Account a : c.getAccounts()) {
+                accounts.put(a.getAccountNumber(), a);
+            }
+        }
+
+        IngestPipeline.Report report = new IngestPipeline(accounts, format, workers).run(input, rejects);
+        System.out.println("✅ " + report);
+        if (report.getRejected() > 0) {
+            System.out.println("Rejected rows written to " + rejects.toAbsolutePath());
+        }
+
+        TransactionJournal.shutdown();
+        System.out.println(Metrics.report());
+        DatabaseManager.shutdown();
+    }
+}
@@ -0,0 +1,130 @@
+// tools/ConcurrencyStress.java
+package tools;
+
+import entities.Account;
+import entities.ChequeAccount;
+import entities.Customer;
+import services.TransactionJournal;
+import utils.DatabaseManager;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Hammers a shared set of accounts with deposits and withdrawals from 1, 2, 4 ... N
+ * threads, then checks that no update was lost: every balance must equal the sum
+ * of the operations that succeeded on it, and every operation must be in the
+ * account's history and in the database.
+ * Usage: ConcurrencyStress [accounts] [opsPerThread] [maxThreads]
+ */
+public class ConcurrencyStress {
+
+    public static void main(String[] args) throws Exception {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        File dbFile = File.createTempFile("banking-stress", ".db");
+        DatabaseManager.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), 2);
+        DatabaseManager.initialize();
+        TransactionJournal.configure(TransactionJournal.DurabilityMode.ASYNC, 0, 100_000);
+
+        boolean allConsistent = true;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            allConsistent &= runRound(threads, accountCount, opsPerThread);
+        }
+
+        TransactionJournal.shutdown();
+        DatabaseManager.shutdown();
+        dbFile.delete();
+        if (!allConsistent) System.exit(1);
+    }
+
+    private static boolean runRound(int threads, int accountCount, int opsPerThread) throws Exception {
+        Customer customer = new Customer("Stress", "Test", "Gaborone", "STRESS" + threads, "0000");
+        Account[] accounts = new Account[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = new ChequeAccount("STR" + threads + "-" + i, "Main", customer, "Employer", "Address", 0);
+        }
+        long rowsBefore = countTransactionRows();
+
+        // Per-thread ledgers of what actually succeeded, merged after the run
+        long[][] expectedBalance = new long[threads][accountCount];
+        long[][] expectedOps = new long[threads][accountCount];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(id);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int op = 0; op < opsPerThread; op++) {
+                    int a = random.nextInt(accountCount);
+                    long amount = 1 + random.nextInt(10_000);
+                    if (random.nextInt(10) < 6) {
+                        accounts[a].deposit(amount);
+                        expectedBalance[id][a] += amount;
+                        expectedOps[id][a]++;
+                    } else {
+                        try {
+                            accounts[a].withdraw(amount);
+                            expectedBalance[id][a] -= amount;
+                            expectedOps[id][a]++;
+                        } catch (IllegalStateException insufficientFunds) {
+                            // Rejected withdrawals change nothing
+                        }
+                    }
+                }
+            }, "stress-" + t);
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        long elapsed = System.nanoTime() - begin;
+        TransactionJournal.getInstance().flush();
+
+        long lostBalances = 0;
+        long lostHistory = 0;
+        long totalOps = 0;
+        for (int a = 0; a < accountCount; a++) {
+            long balance = 0;
+            long ops = 0;
+            for (int t = 0; t < threads; t++) {
+                balance += expectedBalance[t][a];
+                ops += expectedOps[t][a];
+            }
+            totalOps += ops;
+            if (accounts[a].getBalanceCents() != balance) lostBalances++;
+            if (accounts[a].getTransactionHistory().size() != ops) lostHistory++;
+            if (accounts[a].getBalanceCents() < 0) lostBalances++;
+        }
+        long persisted = countTransactionRows() - rowsBefore;
+
+        boolean consistent = lostBalances == 0 && lostHistory == 0 && persisted == totalOps;
+        System.out.printf("%2d threads: %,10.0f ops/s  (%,d applied in %.2f s)  balances=%s history=%s persisted=%,d %s%n",
+                threads, (long) threads * opsPerThread / (elapsed / 1e9), totalOps, elapsed / 1e9,
+                lostBalances == 0 ? "ok" : lostBalances + " wrong",
+                lostHistory == 0 ? "ok" : lostHistory + " wrong",
+                persisted, consistent ? "✅" : "❌");
+        return consistent;
+    }
+
+    private static long countTransactionRows() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM transactions")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+// tools/LoadGenerator.java
+package tools;
+
+import controllers.CustomerLoginController;
+import controllers.TransactionController;
+import entities.Account;
+import entities.Customer;
+import services.BankTeller;
+import services.CustomerRegistry;
+import services.PersistenceService;
+import services.TransactionJournal;
+import utils.DatabaseManager;
+import utils.LatencyHistogram;
+import utils.PinHasher;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for the headless engine. Opens synthetic customers through
+ * BankTeller (a cheque and a savings account each), then N workers run a mix of
+ * logins, deposits, withdrawals and transfers through the controllers for a
+ * fixed time, and the run is summarised per operation: throughput, p50/p99/p99.9
+ * latency, rejections (business rules, e.g. insufficient funds) and errors.
+ * Uses a throwaway database, so runs with different journal modes or on
+ * different machines are comparable.
+ *
+ * Usage: LoadGenerator [customers] [workers] [seconds] [mix] [journalMode] [warmupSeconds]
+ *   mix         e.g. "login=10,deposit=40,withdraw=30,transfer=20" (relative weights)
+ *   journalMode sync | group_commit | async
+ * PINs are hashed with PinHasher's minimum cost unless -Dbanking.pin.iterations
+ * is given, so logins measure the controller rather than the PIN hash.
+ */
+public class LoadGenerator {
+    private static final String DEFAULT_MIX = "login=10,deposit=40,withdraw=30,transfer=20";
+    private static final long OPENING_BALANCE_CENTS = 100_000;
+
+    enum Operation { LOGIN, DEPOSIT, WITHDRAW, TRANSFER }
+
+    /** Results for one operation type, shared by all workers. */
+    private static final class OperationStats {
+        final LatencyHistogram latency;
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        OperationStats(Operation op) {
+            latency = new LatencyHistogram("load." + op.name().toLowerCase());
+        }
+
+        void reset() {
+            latency.reset();
+            ok.reset();
+            rejected.reset();
+            errors.reset();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int customerCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int[] weights = parseMix(args.length > 3 ? args[3] : DEFAULT_MIX);
+        TransactionJournal.DurabilityMode mode = TransactionJournal.DurabilityMode.valueOf(
+                (args.length > 4 ? args[4] : "group_commit").toUpperCase());
+        int warmupSeconds = args.length > 5 ? Integer.parseInt(args[5]) : 2;
+
+        if (System.getProperty("banking.pin.iterations") == null) {
+            System.setProperty("banking.pin.iterations", String.valueOf(PinHasher.MIN_ITERATIONS));
+        }
+        File dbFile = File.createTempFile("banking-load", ".db");
+        DatabaseManager.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), Math.max(2, workers));
+        DatabaseManager.initialize();
+        TransactionJournal.configure(mode, Long.getLong("banking.journal.intervalMs", 5), 100_000);
+
+        CustomerRegistry customers = new CustomerRegistry();
+        List<Customer> population = createCustomers(customerCount, customers);
+
+        OperationStats[] stats = new OperationStats[Operation.values().length];
+        for (Operation op : Operation.values()) stats[op.ordinal()] = new OperationStats(op);
+
+        System.out.printf("Running %d workers for %d s (+%d s warm-up) over %,d customers, journal=%s, mix=%s%n",
+                workers, seconds, warmupSeconds, customerCount, mode, describeMix(weights));
+
+        long warmupEnd = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            int id = w;
+            Thread t = new Thread(() -> runWorker(id, start, end, population, customers, weights, stats), "load-" + w);
+            t.start();
+            threads.add(t);
+        }
+        start.countDown();
+        Thread.sleep(warmupSeconds * 1_000L);
+        for (OperationStats s : stats) s.reset();
+        long measuredStart = System.nanoTime();
+        for (Thread t : threads) t.join();
+        long measured = System.nanoTime() - measuredStart;
+
+        long drainStart = System.nanoTime();
+        TransactionJournal.shutdown();
+        long drain = System.nanoTime() - drainStart;
+
+        printReport(stats, measured, drain);
+        System.out.println("📊 " + DatabaseManager.getPoolStats());
+        DatabaseManager.shutdown();
+        dbFile.delete();
+    }
+
+    private static void runWorker(int id, CountDownLatch start, long end, List<Customer> population,
+                                  CustomerRegistry customers, int[] weights, OperationStats[] stats) {
+        SplittableRandom random = new SplittableRandom(id * 7919L + 17);
+        CustomerLoginController loginController = new CustomerLoginController(customers);
+        int totalWeight = 0;
+        for (int w : weights) totalWeight += w;
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        while (System.nanoTime() < end) {
+            Operation op = pick(weights, random.nextInt(totalWeight));
+            Customer customer = population.get(random.nextInt(population.size()));
+            TransactionController controller = new TransactionController(customer);
+            Account cheque = customer.getAccounts().get(0);
+            Account savings = customer.getAccounts().get(1);
+            long amount = 100 + random.nextInt(50_000);
+            OperationStats s = stats[op.ordinal()];
+
+            long t0 = System.nanoTime();
+            try {
+                switch (op) {
+                    case LOGIN -> {
+                        if (loginController.login(customer.getAccountNumber(), pinFor(customer)) == null) {
+                            throw new IllegalStateException("Login failed for a known customer.");
+                        }
+                    }
+                    case DEPOSIT -> controller.deposit(cheque, amount);
+                    case WITHDRAW -> controller.withdraw(cheque, amount);
+                    case TRANSFER -> controller.transfer(cheque, savings, amount);
+                }
+                s.latency.recordSince(t0);
+                s.ok.increment();
+            } catch (IllegalArgumentException | IllegalStateException rejected) {
+                s.latency.recordSince(t0);
+                s.rejected.increment();
+            } catch (RuntimeException e) {
+                s.errors.increment();
+            }
+        }
+    }
+
+    private static String pinFor(Customer customer) {
+        return String.format("%04d", Integer.parseInt(customer.getAccountNumber().substring(4)) % 10_000);
+    }
+
+    /**
+     * Opens a cheque and a savings account for each customer through BankTeller,
+     * saves them, and gives each cheque account an opening balance.
+     */
+    private static List<Customer> createCustomers(int count, CustomerRegistry registry) {
+        long begin = System.nanoTime();
+        BankTeller teller = new BankTeller();
+        List<Customer> population = new ArrayList<>(count);
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // BankTeller logs every account
+        try {
+            for (int i = 0; i < count; i++) {
+                Customer c = new Customer("Load", "Customer" + i, "Gaborone", String.format("LOAD%06d", i),
+                        String.format("%04d", i % 10_000)); // see pinFor
+                teller.openChequeAccount("Main Branch", c, "Load Employer", "Gaborone");
+                teller.openSavingsAccount("Main Branch", c, false);
+                registry.register(c);
+                population.add(c);
+            }
+        } finally {
+            System.setOut(out);
+        }
+
+        new PersistenceService().saveAllCustomers(population);
+        for (Customer c : population) {
+            c.getAccounts().get(0).deposit(OPENING_BALANCE_CENTS);
+        }
+        TransactionJournal.getInstance().flush();
+        System.out.printf("Created %,d customers (%,d accounts) in %.1f s%n",
+                count, count * 2, (System.nanoTime() - begin) / 1e9);
+        return population;
+    }
+
+    private static void printReport(OperationStats[] stats, long measuredNanos, long drainNanos) {
+        double secs = measuredNanos / 1e9;
+        System.out.printf("%n%-10s %10s %12s %10s %10s %10s %10s %9s %7s%n",
+                "operation", "count", "ops/s", "p50 us", "p99 us", "p99.9 us", "max us", "rejected", "errors");
+        long total = 0;
+        long totalErrors = 0;
+        for (Operation op : Operation.values()) {
+            OperationStats s = stats[op.ordinal()];
+            long count = s.ok.sum() + s.rejected.sum() + s.errors.sum();
+            if (count == 0) continue;
+            total += count;
+            totalErrors += s.errors.sum();
+            System.out.printf("%-10s %,10d %,12.0f %10.1f %10.1f %10.1f %10.1f %,9d %,7d%n",
+                    op.name().toLowerCase(), count, count / secs,
+                    s.latency.getP50Micros(), s.latency.getP99Micros(), s.latency.getP999Micros(),
+                    s.latency.getMaxMicros(), s.rejected.sum(), s.errors.sum());
+        }
+        System.out.printf("%-10s %,10d %,12.0f%n", "total", total, total / secs);
+        System.out.printf("Measured %.1f s; journal drained in %d ms after the run%n",
+                secs, drainNanos / 1_000_000);
+        System.out.println(totalErrors == 0 ? "✅ No errors" : "❌ " + totalErrors + " operations failed unexpectedly");
+    }
+
+    private static Operation pick(int[] weights, int r) {
+        for (Operation op : Operation.values()) {
+            r -= weights[op.ordinal()];
+            if (r < 0) return op;
+        }
+        return Operation.DEPOSIT;
+    }
+
+    /**
+     * Parses "login=10,deposit=40,..." into weights indexed by Operation ordinal.
+     */
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad mix entry: " + part);
+            weights[Operation.valueOf(kv[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(kv[1].trim());
+        }
+        int total = 0;
+        for (int w : weights) {
+            if (w < 0) throw new IllegalArgumentException("Mix weights can't be negative.");
+            total += w;
+        }
+        if (total == 0) throw new IllegalArgumentException("Mix needs at least one positive weight.");
+        return weights;
+    }
+
+    private static String describeMix(int[] weights) {
+        StringBuilder sb = new StringBuilder();
+        for (Operation op : Operation.values()) {
+            if (weights[op.ordinal()] == 0) continue;
+            if (sb.length() > 0) sb.append(',');
+            sb.append(op.name().toLowerCase()).append('=').append(weights[op.ordinal()]);
+        }
+        return sb.toString();
+    }
+}
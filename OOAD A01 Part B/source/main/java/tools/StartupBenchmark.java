@@ -0,0 +1,90 @@
+// tools/StartupBenchmark.java
+package tools;
+
+import entities.Customer;
+import services.LedgerSnapshot;
+import services.PersistenceService;
+import utils.DatabaseManager;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Measures how long PersistenceService.loadAllCustomers() takes on a synthetic database,
+ * from SQLite alone, from a ledger snapshot plus replay, and deferred (customers
+ * table only, with one customer's accounts and history read on first use).
+ * Usage: StartupBenchmark [accounts] [transactionsPerAccount] [dbFile]
+ * Defaults to 100,000 accounts with 100 transactions each (10M rows).
+ * Run with a large heap, e.g. -Xmx8g, for the full-size population.
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int txPerAccount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        File dbFile = args.length > 2 ? new File(args[2]) : File.createTempFile("banking-bench", ".db");
+
+        boolean seed = !dbFile.exists() || dbFile.length() == 0;
+        DatabaseManager.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), 2);
+        DatabaseManager.initialize();
+
+        if (seed) {
+            long genStart = System.nanoTime();
+            new SyntheticDataGenerator(42).generate(accounts, 2, txPerAccount);
+            System.out.printf("Generated %,d accounts / %,d transactions in %.1f s%n",
+                    accounts, (long) accounts * txPerAccount, (System.nanoTime() - genStart) / 1e9);
+        }
+
+        PersistenceService persistence = new PersistenceService();
+        for (int run = 1; run <= 3; run++) {
+            long start = System.nanoTime();
+            List<Customer> customers = persistence.loadAllCustomers();
+            long elapsed = System.nanoTime() - start;
+
+            long loadedAccounts = customers.stream().mapToLong(c -> c.getAccounts().size()).sum();
+            long loadedTx = customers.stream()
+                    .flatMap(c -> c.getAccounts().stream())
+                    .mapToLong(a -> a.getTransactionHistory().size())
+                    .sum();
+            System.out.printf("Run %d: loaded %,d customers, %,d accounts, %,d transactions in %.2f s (%,.0f tx/s)%n",
+                    run, customers.size(), loadedAccounts, loadedTx, elapsed / 1e9, loadedTx / (elapsed / 1e9));
+        }
+
+        // Snapshot + replay of rows above the watermark
+        Path snapshot = Path.of(dbFile.getAbsolutePath() + ".snapshot");
+        List<Customer> loaded = persistence.loadAllCustomers();
+        long writeStart = System.nanoTime();
+        LedgerSnapshot.write(snapshot, loaded);
+        System.out.printf("Snapshot: %,d bytes written in %.2f s%n",
+                Files.size(snapshot), (System.nanoTime() - writeStart) / 1e9);
+        for (int run = 1; run <= 3; run++) {
+            long start = System.nanoTime();
+            List<Customer> customers = persistence.loadAllCustomers(snapshot);
+            long elapsed = System.nanoTime() - start;
+            long loadedTx = customers.stream()
+                    .flatMap(c -> c.getAccounts().stream())
+                    .mapToLong(a -> a.getTransactionHistory().size())
+                    .sum();
+            System.out.printf("Snapshot run %d: loaded %,d customers, %,d transactions in %.2f s%n",
+                    run, customers.size(), loadedTx, elapsed / 1e9);
+        }
+        Files.deleteIfExists(snapshot);
+
+        // Deferred: time to the login screen, then the first customer's dashboard
+        for (int run = 1; run <= 3; run++) {
+            long start = System.nanoTime();
+            List<Customer> customers = persistence.loadAllCustomersDeferred();
+            long elapsed = System.nanoTime() - start;
+            long firstStart = System.nanoTime();
+            long firstTx = customers.get(customers.size() / 2).getAccounts().stream()
+                    .mapToLong(a -> a.getTransactionHistory().size())
+                    .sum();
+            System.out.printf("Deferred run %d: %,d customers in %.2f s; one customer's %,d transactions in %.1f ms%n",
+                    run, customers.size(), elapsed / 1e9, firstTx, (System.nanoTime() - firstStart) / 1e6);
+        }
+
+        DatabaseManager.shutdown();
+    }
+}
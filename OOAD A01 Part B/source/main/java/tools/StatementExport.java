@@ -0,0 +1,64 @@
+// tools/StatementExport.java
+package tools;
+
+import services.PersistenceService;
+import services.StatementExporter;
+import utils.DatabaseManager;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless statement export, one file per account, several accounts at a time.
+ * Usage: StatementExport outputDir [csv|fixed] [--from=YYYY-MM-DD] [--to=YYYY-MM-DD]
+ *                        [--threads=N] [accountNumber ...]
+ * Without account numbers every account in the database is exported.
+ * Use -Dbanking.db.url to point at a database other than banking.db.
+ */
+public class StatementExport {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: StatementExport outputDir [csv|fixed] [--from=YYYY-MM-DD] [--to=YYYY-MM-DD] "
+                    + "[--threads=N] [accountNumber ...]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        StatementExporter.Format format = StatementExporter.Format.CSV;
+        LocalDate from = null;
+        LocalDate to = null;
+        int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        List<String> accounts = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equalsIgnoreCase("csv")) format = StatementExporter.Format.CSV;
+            else if (arg.equalsIgnoreCase("fixed")) format = StatementExporter.Format.FIXED_WIDTH;
+            else if (arg.startsWith("--from=")) from = LocalDate.parse(arg.substring("--from=".length()));
+            else if (arg.startsWith("--to=")) to = LocalDate.parse(arg.substring("--to=".length()));
+            else if (arg.startsWith("--threads=")) threads = Integer.parseInt(arg.substring("--threads=".length()));
+            else accounts.add(arg);
+        }
+
+        // One database connection per export thread
+        DatabaseManager.configure(DatabaseManager.getUrl(), threads);
+        DatabaseManager.initialize();
+        if (accounts.isEmpty()) accounts = new PersistenceService().loadAccountNumbers();
+
+        long start = System.nanoTime();
+        List<StatementExporter.Result> results =
+                new StatementExporter(format).exportAll(accounts, from, to, directory, threads);
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        long rows = 0;
+        long bytes = 0;
+        for (StatementExporter.Result r : results) {
+            rows += r.getRows();
+            bytes += r.getBytes();
+        }
+        System.out.printf("✅ Exported %,d of %,d statements (%,d transactions, %.1f MB) to %s in %.1f s (%,.0f rows/s)%n",
+                results.size(), accounts.size(), rows, bytes / 1e6, directory.toAbsolutePath(), secs, rows / secs);
+        DatabaseManager.shutdown();
+    }
+}
@@ -0,0 +1,119 @@
+// tools/SyntheticDataGenerator.java
+package tools;
+
+import utils.DatabaseManager;
+import utils.PinHasher;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Fills the database with synthetic customers, accounts and transactions
+ * for benchmarks and load tests. Rows are written with batched inserts in
+ * a single SQLite transaction, bypassing the entity layer (so daily_balances
+ * is not updated; run DailyBalanceBackfill afterwards if it is needed).
+ * PINs are hashed at the minimum cost to keep generation fast; each is
+ * re-hashed at the configured cost on the customer's first login.
+ */
+public class SyntheticDataGenerator {
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] BRANCHES = {"Main Branch", "Gaborone West", "Francistown", "Maun"};
+
+    private final Random random;
+
+    public SyntheticDataGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a population of accounts. Every customer owns {@code accountsPerCustomer}
+     * accounts, rotating through Savings, Cheque and Investment types.
+     * @param accounts Total number of accounts to create
+     * @param accountsPerCustomer Accounts owned by each customer
+     * @param transactionsPerAccount History length per account
+     */
+    public void generate(int accounts, int accountsPerCustomer, int transactionsPerAccount) throws SQLException {
+        String customerSql = "INSERT INTO customers (accountNumber, firstName, surname, address, pin) VALUES (?, ?, ?, ?, ?)";
+        String accountSql = """
+            INSERT INTO accounts (accountNumber, balanceCents, branch, customerAccountNumber, type,
+                                  companyAccount, employerName, employerAddress)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        String txSql = "INSERT INTO transactions (type, amountCents, balanceAfterCents, timestamp, accountNumber) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement customerStmt = conn.prepareStatement(customerSql);
+                 PreparedStatement accountStmt = conn.prepareStatement(accountSql);
+                 PreparedStatement txStmt = conn.prepareStatement(txSql)) {
+
+                LocalDateTime start = LocalDateTime.now().minusDays(transactionsPerAccount);
+                int pendingTx = 0;
+
+                for (int i = 0; i < accounts; i++) {
+                    String customerAccNum = "CUS" + (1_000_000 + i / accountsPerCustomer);
+                    if (i % accountsPerCustomer == 0) {
+                        customerStmt.setString(1, customerAccNum);
+                        customerStmt.setString(2, "First" + i);
+                        customerStmt.setString(3, "Surname" + random.nextInt(10_000));
+                        customerStmt.setString(4, BRANCHES[i % BRANCHES.length]);
+                        customerStmt.setString(5, PinHasher.hash(String.format("%04d", random.nextInt(10_000)), PinHasher.MIN_ITERATIONS));
+                        customerStmt.addBatch();
+                    }
+
+                    String accNum = "SYN" + (1_000_000 + i);
+                    String type = switch (i % 3) {
+                        case 0 -> "SavingsAccount";
+                        case 1 -> "ChequeAccount";
+                        default -> "InvestmentAccount";
+                    };
+
+                    long balance = type.equals("InvestmentAccount") ? 500_00 : 0;
+                    for (int t = 0; t < transactionsPerAccount; t++) {
+                        boolean withdrawal = !type.equals("SavingsAccount") && balance > 100_00 && random.nextInt(4) == 0;
+                        long amount = 1_00 + random.nextInt(100_00);
+                        if (withdrawal) amount = Math.min(amount, balance);
+                        balance += withdrawal ? -amount : amount;
+
+                        txStmt.setString(1, withdrawal ? "Withdrawal" : "Deposit");
+                        txStmt.setLong(2, amount);
+                        txStmt.setLong(3, balance);
+                        txStmt.setString(4, start.plusDays(t).toString());
+                        txStmt.setString(5, accNum);
+                        txStmt.addBatch();
+                        if (++pendingTx == BATCH_SIZE) {
+                            txStmt.executeBatch();
+                            pendingTx = 0;
+                        }
+                    }
+
+                    accountStmt.setString(1, accNum);
+                    accountStmt.setLong(2, balance);
+                    accountStmt.setString(3, BRANCHES[i % BRANCHES.length]);
+                    accountStmt.setString(4, customerAccNum);
+                    accountStmt.setString(5, type);
+                    accountStmt.setBoolean(6, i % 7 == 0);
+                    accountStmt.setString(7, type.equals("ChequeAccount") ? "Employer " + (i % 50) : null);
+                    accountStmt.setString(8, type.equals("ChequeAccount") ? "Plot " + i : null);
+                    accountStmt.addBatch();
+
+                    if (i % BATCH_SIZE == BATCH_SIZE - 1) {
+                        customerStmt.executeBatch();
+                        accountStmt.executeBatch();
+                    }
+                }
+
+                customerStmt.executeBatch();
+                accountStmt.executeBatch();
+                txStmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+}
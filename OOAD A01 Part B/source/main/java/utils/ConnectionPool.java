@@ -0,0 +1,332 @@
+// utils/ConnectionPool.java
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of SQLite connections.
+ * Connections are handed out as proxies: close() returns them to the pool,
+ * and prepareStatement(sql) reuses a statement cached on that connection.
+ */
+public class ConnectionPool {
+    private static final int STATEMENT_CACHE_SIZE = 32;
+    private static final LatencyHistogram WAIT_LATENCY = Metrics.histogram("db.connectionWait");
+
+    private final String url;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final BlockingQueue<PooledConnection> idle;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    // Metrics
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int maxSize, long acquireTimeoutMillis) {
+        if (maxSize < 1) throw new IllegalArgumentException("Pool size must be at least 1.");
+        this.url = url;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Borrows a connection, opening a new one while the pool is below its limit
+     * and otherwise waiting for one to be returned.
+     * @return Connection whose close() hands it back to the pool
+     * @throws SQLTimeoutException if no connection frees up in time
+     */
+    public Connection acquire() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed.");
+        long start = System.nanoTime();
+
+        PooledConnection pc = idle.poll();
+        if (pc == null) pc = tryOpen();
+        if (pc == null) {
+            try {
+                pc = idle.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection.", e);
+            }
+            if (pc == null) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("No database connection available after " + acquireTimeoutMillis + " ms.");
+            }
+        }
+
+        recordWait(System.nanoTime() - start);
+        active.incrementAndGet();
+        return pc.lease();
+    }
+
+    private PooledConnection tryOpen() throws SQLException {
+        while (true) {
+            int current = size.get();
+            if (current >= maxSize) return null;
+            if (size.compareAndSet(current, current + 1)) break;
+        }
+        try {
+            Connection raw = DriverManager.getConnection(url);
+            applyPragmas(raw);
+            return new PooledConnection(raw);
+        } catch (SQLException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * WAL lets readers run alongside the single writer; NORMAL sync is safe under WAL
+     * and avoids an fsync on every commit.
+     */
+    private static void applyPragmas(Connection raw) throws SQLException {
+        try (Statement stmt = raw.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = NORMAL");
+            stmt.execute("PRAGMA busy_timeout = 5000");
+            stmt.execute("PRAGMA cache_size = -8192");
+            stmt.execute("PRAGMA temp_store = MEMORY");
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        active.decrementAndGet();
+        try {
+            if (pc.raw.isClosed()) {
+                discard(pc);
+                return;
+            }
+            if (!pc.raw.getAutoCommit()) {
+                pc.raw.rollback();
+                pc.raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            discard(pc);
+            return;
+        }
+        if (closed || !idle.offer(pc)) {
+            discard(pc);
+        }
+    }
+
+    private void discard(PooledConnection pc) {
+        size.decrementAndGet();
+        pc.closeQuietly();
+    }
+
+    private void recordWait(long nanos) {
+        WAIT_LATENCY.record(nanos);
+        acquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Closes idle connections and stops handing out new ones.
+     * Connections still on loan are closed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        PooledConnection pc;
+        while ((pc = idle.poll()) != null) {
+            discard(pc);
+        }
+    }
+
+    public String getUrl() { return url; }
+
+    public Stats getStats() {
+        return new Stats(size.get(), active.get(), idle.size(), acquisitions.get(),
+                totalWaitNanos.get(), maxWaitNanos.get(), timeouts.get());
+    }
+
+    /**
+     * Point-in-time snapshot of pool usage.
+     */
+    public static class Stats {
+        private final int size;
+        private final int active;
+        private final int idle;
+        private final long acquisitions;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long timeouts;
+
+        Stats(int size, int active, int idle, long acquisitions, long totalWaitNanos, long maxWaitNanos, long timeouts) {
+            this.size = size;
+            this.active = active;
+            this.idle = idle;
+            this.acquisitions = acquisitions;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.timeouts = timeouts;
+        }
+
+        public int getSize() { return size; }
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public long getAcquisitions() { return acquisitions; }
+        public long getTotalWaitNanos() { return totalWaitNanos; }
+        public long getMaxWaitNanos() { return maxWaitNanos; }
+        public long getTimeouts() { return timeouts; }
+
+        public double getAverageWaitMicros() {
+            return acquisitions == 0 ? 0.0 : totalWaitNanos / 1_000.0 / acquisitions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pool{size=%d, active=%d, idle=%d, acquisitions=%d, avgWait=%.1fus, maxWait=%.1fus, timeouts=%d}",
+                    size, active, idle, acquisitions, getAverageWaitMicros(), maxWaitNanos / 1_000.0, timeouts);
+        }
+    }
+
+    /**
+     * A physical connection plus its prepared statement cache.
+     */
+    private class PooledConnection {
+        private final Connection raw;
+        private final Map<String, PreparedStatement> statements;
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= STATEMENT_CACHE_SIZE) return false;
+                    try {
+                        eldest.getValue().close();
+                    } catch (SQLException ignored) {
+                        // Evicted statement is gone either way
+                    }
+                    return true;
+                }
+            };
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+
+        PreparedStatement cachedStatement(String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps == null || ps.isClosed()) {
+                ps = raw.prepareStatement(sql);
+                statements.put(sql, ps);
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandler(ps));
+        }
+
+        void closeQuietly() {
+            try {
+                for (PreparedStatement ps : statements.values()) ps.close();
+                statements.clear();
+                raw.close();
+            } catch (SQLException ignored) {
+                // Nothing useful to do with a connection we are throwing away
+            }
+        }
+    }
+
+    /**
+     * One borrower's view of a pooled connection. Stops working once returned.
+     */
+    private class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean released;
+
+        LeaseHandler(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pc.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + url + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            if (method.getName().equals("prepareStatement") && args != null && args.length == 1) {
+                return pc.cachedStatement((String) args[0]);
+            }
+            try {
+                return method.invoke(pc.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Cached statement whose close() only resets it for the next borrower.
+     */
+    private static class StatementHandler implements InvocationHandler {
+        private final PreparedStatement delegate;
+
+        StatementHandler(PreparedStatement delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!delegate.isClosed()) {
+                        delegate.clearParameters();
+                        delegate.clearBatch();
+                    }
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -2,63 +2,305 @@
 package utils;
 
 import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
 
 public class DatabaseManager {
-    private static final String URL = "jdbc:sqlite:banking.db";
+    private static final String DEFAULT_URL = "jdbc:sqlite:banking.db";
+    private static final int DEFAULT_POOL_SIZE = 4;
+    private static final long ACQUIRE_TIMEOUT_MS = 10_000;
+
+    private static String url = System.getProperty("banking.db.url", DEFAULT_URL);
+    private static int poolSize = Integer.getInteger("banking.db.poolSize", DEFAULT_POOL_SIZE);
+    private static ConnectionPool pool;
 
     public static void initialize() {
-        try (Connection conn = DriverManager.getConnection(URL)) {
+        try (Connection conn = getConnection()) {
+            migrateMoneyToCents(conn);
+            boolean newDailyBalances = !hasColumn(conn, "daily_balances", "day");
             createTables(conn);
-            System.out.println("✅ Database initialized: banking.db");
+            hashPlaintextPins(conn);
+            System.out.println("✅ Database initialized: " + url.replace("jdbc:sqlite:", ""));
+            if (newDailyBalances && hasTransactions(conn)) {
+                System.out.println("⚠️ Daily balances start empty; run tools.DailyBalanceBackfill to summarise existing transactions");
+            }
         } catch (SQLException e) {
             System.err.println("❌ Database initialization failed: " + e.getMessage());
         }
     }
 
     private static void createTables(Connection conn) throws SQLException {
-        Statement stmt = conn.createStatement();
-
-        // Customers Table
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS customers (
-                accountNumber TEXT PRIMARY KEY,
-                firstName TEXT NOT NULL,
-                surname TEXT NOT NULL,
-                address TEXT,
-                pin TEXT NOT NULL
-            );
-        """);
-
-        // Accounts Table
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS accounts (
-                accountNumber TEXT PRIMARY KEY,
-                balance REAL NOT NULL,
-                branch TEXT,
-                customerAccountNumber TEXT,
-                type TEXT NOT NULL,
-                companyAccount BOOLEAN DEFAULT FALSE,
-                employerName TEXT,
-                employerAddress TEXT,
-                FOREIGN KEY (customerAccountNumber) REFERENCES customers (accountNumber)
-            );
-        """);
-
-        // Transactions Table
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS transactions (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                type TEXT NOT NULL,
-                amount REAL NOT NULL,
-                balanceAfter REAL NOT NULL,
-                timestamp TEXT NOT NULL,
-                accountNumber TEXT,
-                FOREIGN KEY (accountNumber) REFERENCES accounts (accountNumber)
-            );
-        """);
+        try (Statement stmt = conn.createStatement()) {
+
+            // Customers Table
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS customers (
+                    accountNumber TEXT PRIMARY KEY,
+                    firstName TEXT NOT NULL,
+                    surname TEXT NOT NULL,
+                    address TEXT,
+                    pin TEXT NOT NULL
+                );
+            """);
+
+            // Accounts Table
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS accounts (
+                    accountNumber TEXT PRIMARY KEY,
+                    balanceCents INTEGER NOT NULL,
+                    branch TEXT,
+                    customerAccountNumber TEXT,
+                    type TEXT NOT NULL,
+                    companyAccount BOOLEAN DEFAULT FALSE,
+                    employerName TEXT,
+                    employerAddress TEXT,
+                    FOREIGN KEY (customerAccountNumber) REFERENCES customers (accountNumber)
+                );
+            """);
+
+            // Transactions Table
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS transactions (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    type TEXT NOT NULL,
+                    amountCents INTEGER NOT NULL,
+                    balanceAfterCents INTEGER NOT NULL,
+                    timestamp TEXT NOT NULL,
+                    accountNumber TEXT,
+                    FOREIGN KEY (accountNumber) REFERENCES accounts (accountNumber)
+                );
+            """);
+
+            // History paging walks (accountNumber, timestamp, id) in order
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_transactions_account_time
+                ON transactions (accountNumber, timestamp, id);
+            """);
+
+            // Loading a single customer on a cache miss, and teller surname/branch searches
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_accounts_customer
+                ON accounts (customerAccountNumber);
+            """);
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_customers_surname
+                ON customers (surname COLLATE NOCASE);
+            """);
+
+            // Opening/closing balance and money in and out per account per day, kept in
+            // step with transactions so statements and reports read a row per day
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS daily_balances (
+                    accountNumber TEXT NOT NULL,
+                    day TEXT NOT NULL,
+                    openingCents INTEGER NOT NULL,
+                    closingCents INTEGER NOT NULL,
+                    creditsCents INTEGER NOT NULL,
+                    debitsCents INTEGER NOT NULL,
+                    interestCents INTEGER NOT NULL,
+                    transactionCount INTEGER NOT NULL,
+                    firstTimestamp TEXT NOT NULL,
+                    lastTimestamp TEXT NOT NULL,
+                    PRIMARY KEY (accountNumber, day)
+                ) WITHOUT ROWID;
+            """);
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_daily_balances_day
+                ON daily_balances (day);
+            """);
+
+            // Closed years moved out of transactions into compressed per-year files
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS transaction_archives (
+                    year INTEGER PRIMARY KEY,
+                    fileName TEXT NOT NULL,
+                    rowCount INTEGER NOT NULL,
+                    minId INTEGER NOT NULL,
+                    maxId INTEGER NOT NULL,
+                    sizeBytes INTEGER NOT NULL,
+                    archivedAt TEXT NOT NULL,
+                    checksum TEXT
+                );
+            """);
+            if (!hasColumn(conn, "transaction_archives", "checksum")) {
+                // SHA-256 of the uncompressed archive; NULL for archives made before it was recorded
+                stmt.execute("ALTER TABLE transaction_archives ADD COLUMN checksum TEXT");
+            }
+
+            // Interest run checkpoints (one row per month)
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS interest_runs (
+                    period TEXT PRIMARY KEY,
+                    lastAccountNumber TEXT,
+                    completed BOOLEAN DEFAULT FALSE
+                );
+            """);
+        }
+    }
+
+    /**
+     * Converts databases created before money was stored as integer cents:
+     * rebuilds accounts and transactions with INTEGER cent columns, rounding
+     * each old REAL value to the nearest cent. Runs once, in one transaction.
+     */
+    private static void migrateMoneyToCents(Connection conn) throws SQLException {
+        boolean legacyAccounts = hasColumn(conn, "accounts", "balance");
+        boolean legacyTransactions = hasColumn(conn, "transactions", "amount");
+        if (!legacyAccounts && !legacyTransactions) return;
+
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            if (legacyAccounts) {
+                stmt.execute("""
+                    CREATE TABLE accounts_cents (
+                        accountNumber TEXT PRIMARY KEY,
+                        balanceCents INTEGER NOT NULL,
+                        branch TEXT,
+                        customerAccountNumber TEXT,
+                        type TEXT NOT NULL,
+                        companyAccount BOOLEAN DEFAULT FALSE,
+                        employerName TEXT,
+                        employerAddress TEXT,
+                        FOREIGN KEY (customerAccountNumber) REFERENCES customers (accountNumber)
+                    );
+                """);
+                stmt.execute("""
+                    INSERT INTO accounts_cents
+                    SELECT accountNumber, CAST(ROUND(balance * 100) AS INTEGER), branch, customerAccountNumber,
+                           type, companyAccount, employerName, employerAddress
+                    FROM accounts;
+                """);
+                stmt.execute("DROP TABLE accounts");
+                stmt.execute("ALTER TABLE accounts_cents RENAME TO accounts");
+            }
+            if (legacyTransactions) {
+                stmt.execute("""
+                    CREATE TABLE transactions_cents (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        type TEXT NOT NULL,
+                        amountCents INTEGER NOT NULL,
+                        balanceAfterCents INTEGER NOT NULL,
+                        timestamp TEXT NOT NULL,
+                        accountNumber TEXT,
+                        FOREIGN KEY (accountNumber) REFERENCES accounts (accountNumber)
+                    );
+                """);
+                stmt.execute("""
+                    INSERT INTO transactions_cents
+                    SELECT id, type, CAST(ROUND(amount * 100) AS INTEGER), CAST(ROUND(balanceAfter * 100) AS INTEGER),
+                           timestamp, accountNumber
+                    FROM transactions;
+                """);
+                stmt.execute("DROP TABLE transactions");
+                stmt.execute("ALTER TABLE transactions_cents RENAME TO transactions");
+            }
+            conn.commit();
+            System.out.println("✅ Migrated money columns to integer cents");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Replaces PINs stored in plaintext by earlier versions with salted hashes
+     * (see PinHasher). Hashing is deliberately slow, so it runs on all cores.
+     */
+    private static void hashPlaintextPins(Connection conn) throws SQLException {
+        Map<String, String> pins = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT accountNumber, pin FROM customers WHERE pin NOT LIKE ? || '%'")) {
+            pstmt.setString(1, PinHasher.PREFIX);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) pins.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        if (pins.isEmpty()) return;
+
+        pins.entrySet().parallelStream().forEach(e -> e.setValue(PinHasher.hash(e.getValue())));
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE customers SET pin = ? WHERE accountNumber = ? AND pin NOT LIKE ? || '%'")) {
+            for (Map.Entry<String, String> e : pins.entrySet()) {
+                pstmt.setString(1, e.getValue());
+                pstmt.setString(2, e.getKey());
+                pstmt.setString(3, PinHasher.PREFIX);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+            System.out.println("✅ Hashed " + pins.size() + " stored PINs");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static boolean hasTransactions(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM transactions)")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM pragma_table_info(?) WHERE name = ?")) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, column);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Points the pool at a different database (e.g. a temp file for benchmarks).
+     * Must be called before the first connection is taken, or after shutdown().
+     */
+    public static synchronized void configure(String jdbcUrl, int maxConnections) {
+        if (pool != null) {
+            throw new IllegalStateException("Connection pool already started for " + pool.getUrl());
+        }
+        url = jdbcUrl;
+        poolSize = maxConnections;
     }
 
+    public static synchronized String getUrl() {
+        return url;
+    }
+
+    /**
+     * Borrows a pooled connection. Closing it returns it to the pool.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return pool().acquire();
+    }
+
+    private static synchronized ConnectionPool pool() {
+        if (pool == null) {
+            pool = new ConnectionPool(url, poolSize, ACQUIRE_TIMEOUT_MS);
+        }
+        return pool;
+    }
+
+    /**
+     * Current pool usage: wait times and active/idle connection counts.
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return pool().getStats();
+    }
+
+    /**
+     * Closes all idle connections. The next getConnection() starts a fresh pool.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+// utils/LatencyHistogramMXBean.java
+package utils;
+
+/**
+ * JMX view of one {@link LatencyHistogram} (banking:type=Latency,name=...).
+ */
+public interface LatencyHistogramMXBean {
+    String getName();
+    long getCount();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP99Micros();
+    double getP999Micros();
+    double getMaxMicros();
+    void reset();
+}
@@ -0,0 +1,112 @@
+// utils/LoginThrottle.java
+package utils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts failed logins per key (an account number, or "teller") in memory and
+ * locks a key out after too many failures in a row. A locked-out attempt is
+ * refused before any lookup or PIN hashing, so a brute-force run costs the bank
+ * almost nothing once it has tripped the limit.
+ *
+ * Counters live in a bounded {@link SegmentedLruCache}: keys that fail
+ * repeatedly are promoted to its protected segment, so spraying one guess at
+ * many accounts can't evict the lockouts of the accounts under attack.
+ * Counters expire after the lockout period without further failures.
+ * Failures and refused attempts are counted as login.failures and login.throttled.
+ * The login controllers share one throttle per process ({@link #shared()}), so
+ * switching between the GUI, the HTTP API and other entry points doesn't reset
+ * a lockout.
+ */
+public class LoginThrottle {
+    private static final LongAdder FAILURES = Metrics.counter("login.failures");
+    private static final LongAdder THROTTLED = Metrics.counter("login.throttled");
+
+    private static final class Attempts {
+        int failures;
+        long lastFailure;
+        boolean locked;
+        long lockedUntil;
+    }
+
+    private static final class Shared {
+        static final LoginThrottle INSTANCE = new LoginThrottle();
+    }
+
+    private final SegmentedLruCache<String, Attempts> attempts;
+    private final int maxFailures;
+    private final long lockoutNanos;
+
+    /**
+     * Configured with -Dbanking.login.maxFailures (default 5),
+     * -Dbanking.login.lockoutMinutes (default 15) and
+     * -Dbanking.login.throttleEntries (default 100,000).
+     */
+    public LoginThrottle() {
+        this(Integer.getInteger("banking.login.maxFailures", 5),
+                Duration.ofMinutes(Long.getLong("banking.login.lockoutMinutes", 15)),
+                Integer.getInteger("banking.login.throttleEntries", 100_000));
+    }
+
+    /**
+     * The process-wide throttle, configured as by the no-argument constructor.
+     */
+    public static LoginThrottle shared() {
+        return Shared.INSTANCE;
+    }
+
+    public LoginThrottle(int maxFailures, Duration lockout, int maxEntries) {
+        if (maxFailures < 1) throw new IllegalArgumentException("maxFailures must be at least 1.");
+        this.maxFailures = maxFailures;
+        this.lockoutNanos = lockout.toNanos();
+        this.attempts = new SegmentedLruCache<>("cache.loginThrottle", maxEntries, 16, a -> 1, null);
+    }
+
+    /**
+     * Called before checking a PIN.
+     * @return false, counting the refusal, if the key is locked out
+     */
+    public boolean allow(String key) {
+        if (!isLocked(key)) return true;
+        THROTTLED.increment();
+        return false;
+    }
+
+    /**
+     * Whether attempts for this key are refused right now.
+     */
+    public boolean isLocked(String key) {
+        Attempts a = attempts.get(key, k -> null);
+        if (a == null) return false;
+        synchronized (a) {
+            return a.locked && a.lockedUntil - System.nanoTime() > 0;
+        }
+    }
+
+    public void recordFailure(String key) {
+        FAILURES.increment();
+        Attempts a = attempts.get(key, k -> new Attempts());
+        long now = System.nanoTime();
+        synchronized (a) {
+            if (a.failures > 0 && now - a.lastFailure > lockoutNanos) a.failures = 0; // expired
+            a.lastFailure = now;
+            if (++a.failures >= maxFailures) {
+                a.failures = 0;
+                a.locked = true;
+                a.lockedUntil = now + lockoutNanos;
+            }
+        }
+    }
+
+    public void recordSuccess(String key) {
+        attempts.invalidate(key);
+    }
+
+    /**
+     * Number of keys currently tracked.
+     */
+    public int size() {
+        return attempts.size();
+    }
+}
@@ -0,0 +1,89 @@
+// utils/Metrics.java
+package utils;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and latency histograms.
+ * Hot paths keep the LongAdder or LatencyHistogram in a static field and only
+ * pay for an add on each call. Everything is registered with the platform
+ * MBean server under "banking:*" and can be printed with {@link #dump()}.
+ */
+public final class Metrics implements MetricsMXBean {
+    private static final Metrics INSTANCE = new Metrics();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    static {
+        register("banking:type=Metrics", INSTANCE);
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the counter with this name, creating it on first use.
+     */
+    public static LongAdder counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * Returns the histogram with this name, creating and registering it on first use.
+     */
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, n -> {
+            LatencyHistogram h = new LatencyHistogram(n);
+            register("banking:type=Latency,name=" + ObjectName.quote(n), h);
+            return h;
+        });
+    }
+
+    /**
+     * Current counters and histograms, one per line, sorted by name.
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder("Metrics:\n");
+        new TreeMap<>(COUNTERS).forEach((name, value) ->
+                sb.append(String.format("  %-28s %d%n", name, value.sum())));
+        new TreeMap<>(HISTOGRAMS).values().forEach(h -> sb.append("  ").append(h).append('\n'));
+        return sb.toString();
+    }
+
+    private static void register(String objectName, Object bean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(bean, name);
+            }
+        } catch (Exception | LinkageError e) {
+            // JMX is optional; metrics still work in-process without it
+            System.err.println("❌ Could not register " + objectName + " with JMX: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        COUNTERS.forEach((name, value) -> values.put(name, value.sum()));
+        return values;
+    }
+
+    @Override
+    public String dump() {
+        return report();
+    }
+
+    @Override
+    public void reset() {
+        COUNTERS.values().forEach(LongAdder::reset);
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+    }
+}
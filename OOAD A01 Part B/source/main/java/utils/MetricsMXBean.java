@@ -0,0 +1,18 @@
+// utils/MetricsMXBean.java
+package utils;
+
+import java.util.Map;
+
+/**
+ * JMX view of the whole metrics registry (banking:type=Metrics).
+ */
+public interface MetricsMXBean {
+    /** Current value of every counter. */
+    Map<String, Long> getCounters();
+
+    /** All counters and histograms as text, one per line. */
+    String dump();
+
+    /** Zeroes every counter and histogram. */
+    void reset();
+}
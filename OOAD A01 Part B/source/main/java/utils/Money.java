@@ -0,0 +1,61 @@
+// utils/Money.java
+package utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Money is held as a long count of cents (thebe) everywhere in the system.
+ * These helpers convert at the edges (user input, display) and do the
+ * interest math without floating point or allocation.
+ */
+public final class Money {
+    public static final long CENTS_PER_PULA = 100;
+    /** Interest rates are expressed in parts per million (1% = 10,000 ppm). */
+    public static final long PPM = 1_000_000;
+
+    private Money() {
+    }
+
+    /**
+     * Parses user input such as "250", "250.5" or "250.50" into cents.
+     * @throws NumberFormatException if the text is not a number
+     * @throws IllegalArgumentException if it has more than 2 decimal places
+     */
+    public static long parse(String text) {
+        BigDecimal value = new BigDecimal(text.trim()).stripTrailingZeros();
+        if (value.scale() > 2) {
+            throw new IllegalArgumentException("Amount can have at most 2 decimal places.");
+        }
+        try {
+            return value.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount is too large.");
+        }
+    }
+
+    /**
+     * Formats cents as a plain decimal amount, e.g. 123456 -> "1234.56".
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % CENTS_PER_PULA;
+        return (cents < 0 ? "-" : "") + (abs / CENTS_PER_PULA) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    /**
+     * Applies a rate to an amount, rounding half-even to the nearest cent.
+     * @param cents Amount in cents
+     * @param ratePpm Rate in parts per million
+     * @return cents * ratePpm / 1,000,000, rounded
+     * @throws ArithmeticException if the intermediate product overflows
+     */
+    public static long applyRate(long cents, long ratePpm) {
+        long product = Math.multiplyExact(cents, ratePpm);
+        long quotient = product / PPM;
+        long twiceRemainder = Math.abs(product - quotient * PPM) * 2;
+        if (twiceRemainder > PPM || (twiceRemainder == PPM && (quotient & 1) != 0)) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+}
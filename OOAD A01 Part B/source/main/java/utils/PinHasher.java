@@ -0,0 +1,193 @@
+// utils/PinHasher.java
+package utils;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Salted PIN hashing with PBKDF2-HMAC-SHA256, stored as
+ * "pbkdf2-sha256$iterations$salt$hash" (Base64). The iteration count is stored
+ * with each hash, so it can be raised later without invalidating old hashes.
+ *
+ * The cost is tuned to a latency budget: unless -Dbanking.pin.iterations is set,
+ * the first hash measures this machine and picks the iteration count that takes
+ * about -Dbanking.pin.hashMillis (default 50) per PIN. Every verification costs
+ * one derivation, whether or not the account exists or the stored value is a
+ * pre-hashing plaintext PIN, and hashes are compared in constant time, so the
+ * response time says nothing about why a login failed.
+ *
+ * At most -Dbanking.pin.maxConcurrent (default: one per CPU) verifications
+ * derive at once; others wait up to -Dbanking.pin.waitMillis (default 2,000)
+ * for a turn and are then refused. A PIN spray across many accounts then
+ * can't take every CPU from the threads serving other requests.
+ */
+public final class PinHasher {
+    public static final String PREFIX = "pbkdf2-sha256$";
+    /** Lowest iteration count accepted from configuration (e.g. for throwaway test data). */
+    public static final int MIN_ITERATIONS = 1_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int CALIBRATION_ITERATIONS = 20_000;
+    private static final int CALIBRATION_ROUNDS = 5;
+    private static final int MIN_CALIBRATED_ITERATIONS = 10_000;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Semaphore VERIFICATIONS = new Semaphore(
+            Integer.getInteger("banking.pin.maxConcurrent", Runtime.getRuntime().availableProcessors()));
+    private static final long VERIFY_WAIT_MILLIS = Long.getLong("banking.pin.waitMillis", 2_000);
+
+    private static volatile int iterations;
+    private static volatile String dummyHash; // stands in for missing credentials
+
+    private PinHasher() {
+    }
+
+    /**
+     * Hashes a PIN with a new random salt at the configured cost.
+     */
+    public static String hash(String pin) {
+        return hash(pin, iterations());
+    }
+
+    /**
+     * Hashes a PIN with a new random salt and the given iteration count.
+     */
+    public static String hash(String pin, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + b64.encodeToString(salt) + "$"
+                + b64.encodeToString(derive(pin, salt, iterations));
+    }
+
+    /**
+     * Checks a PIN against a stored value. The stored value is normally a hash;
+     * a plaintext PIN from before hashing is still accepted (see {@link #needsRehash}).
+     * Null stands for "no such credential" and always fails, at the same cost,
+     * as does a malformed hash.
+     * @throws IllegalStateException if too many verifications are already running
+     */
+    public static boolean verify(String pin, String stored) {
+        acquireTurn();
+        try {
+            return verifyNow(pin == null ? "" : pin, stored);
+        } finally {
+            VERIFICATIONS.release();
+        }
+    }
+
+    private static void acquireTurn() {
+        boolean acquired;
+        try {
+            acquired = VERIFICATIONS.tryAcquire(VERIFY_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) throw new IllegalStateException("Too many logins in progress. Try again shortly.");
+    }
+
+    private static boolean verifyNow(String pin, String stored) {
+        if (stored == null || !isHash(stored)) {
+            derive(pin, new byte[SALT_BYTES], dummyIterations()); // same cost as a real check
+            return stored != null && MessageDigest.isEqual(
+                    stored.getBytes(StandardCharsets.UTF_8), pin.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.substring(PREFIX.length()).split("\\$", -1);
+        byte[] salt;
+        byte[] expected;
+        int storedIterations;
+        try {
+            if (parts.length != 3) throw new IllegalArgumentException("expected 3 fields");
+            storedIterations = Integer.parseInt(parts[0]);
+            if (storedIterations <= 0) throw new IllegalArgumentException("bad iteration count");
+            Base64.Decoder b64 = Base64.getDecoder();
+            salt = b64.decode(parts[1]);
+            expected = b64.decode(parts[2]);
+            if (salt.length == 0 || expected.length == 0) throw new IllegalArgumentException("empty field");
+        } catch (IllegalArgumentException e) { // includes NumberFormatException
+            derive(pin, new byte[SALT_BYTES], dummyIterations());
+            return false;
+        }
+        return MessageDigest.isEqual(expected, derive(pin, salt, storedIterations));
+    }
+
+    public static boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * Whether a stored value is plaintext or was hashed with fewer iterations than
+     * are configured now, and should be replaced after the next successful login.
+     */
+    public static boolean needsRehash(String stored) {
+        if (!isHash(stored)) return true;
+        int end = stored.indexOf('$', PREFIX.length());
+        if (end < 0) return true;
+        try {
+            return Integer.parseInt(stored.substring(PREFIX.length(), end)) < iterations();
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Iteration count for new hashes, measured on first use unless configured.
+     */
+    public static int iterations() {
+        int n = iterations;
+        if (n == 0) {
+            synchronized (PinHasher.class) {
+                n = iterations;
+                if (n == 0) {
+                    String configured = System.getProperty("banking.pin.iterations");
+                    n = configured != null
+                            ? Math.max(MIN_ITERATIONS, Integer.parseInt(configured))
+                            : calibrate(Long.getLong("banking.pin.hashMillis", 50));
+                    iterations = n;
+                }
+            }
+        }
+        return n;
+    }
+
+    private static int dummyIterations() {
+        String dummy = dummyHash;
+        if (dummy == null) dummyHash = dummy = hash("0000");
+        return Integer.parseInt(dummy.substring(PREFIX.length(), dummy.indexOf('$', PREFIX.length())));
+    }
+
+    private static int calibrate(long budgetMillis) {
+        byte[] salt = new byte[SALT_BYTES];
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) { // the first rounds warm up the JIT
+            long start = System.nanoTime();
+            derive("0000", salt, CALIBRATION_ITERATIONS);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double nanosPerIteration = (double) best / CALIBRATION_ITERATIONS;
+        int n = (int) Math.min(Integer.MAX_VALUE, budgetMillis * 1_000_000 / nanosPerIteration);
+        n = Math.max(MIN_CALIBRATED_ITERATIONS, n);
+        System.out.printf("🔐 PIN hashing: %,d PBKDF2 iterations (~%d ms)%n", n, budgetMillis);
+        return n;
+    }
+
+    private static byte[] derive(String pin, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(pin.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available.", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,292 @@
+// utils/SegmentedLruCache.java
+package utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded, weighted read-through cache using segmented LRU.
+ * New entries start in a probation segment; a second hit promotes them to the
+ * protected segment (80% of capacity), so a one-off scan of many keys only
+ * churns probation and can't flush the entries that are actually reused.
+ * Eviction takes the least recently used probation entry first.
+ *
+ * The cache is split into independently locked shards. A miss runs the loader
+ * under its shard's lock, so each key is loaded at most once at a time.
+ * Hits, misses and evictions are counted in {@link Metrics} as
+ * name.hits, name.misses and name.evictions.
+ */
+public class SegmentedLruCache<K, V> {
+    private static final int PROTECTED_PERCENT = 80;
+
+    private final Shard<K, V>[] shards;
+    private final int mask;
+    private final ToLongFunction<? super V> weigher;
+    private final Consumer<? super V> onEvict;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * @param name Prefix for the metrics counters
+     * @param maxWeight Total weight the cache may hold (e.g. estimated bytes)
+     * @param shardCount Number of shards, rounded up to a power of two
+     * @param weigher Weight of a value; re-evaluated on every hit, so values may grow
+     * @param onEvict Called, outside any lock, with each evicted value
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedLruCache(String name, long maxWeight, int shardCount,
+                             ToLongFunction<? super V> weigher, Consumer<? super V> onEvict) {
+        if (maxWeight <= 0) throw new IllegalArgumentException("Cache capacity must be positive.");
+        int size = shardCount <= 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.shards = (Shard<K, V>[]) new Shard<?, ?>[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard<>(Math.max(1, maxWeight / size));
+        }
+        this.mask = size - 1;
+        this.weigher = weigher;
+        this.onEvict = onEvict;
+        this.hits = Metrics.counter(name + ".hits");
+        this.misses = Metrics.counter(name + ".misses");
+        this.evictions = Metrics.counter(name + ".evictions");
+    }
+
+    /**
+     * Returns the cached value, or loads, caches and returns it.
+     * @param loader Called on a miss; may return null, which is not cached
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Shard<K, V> shard = shardFor(key);
+        V value;
+        List<V> evicted;
+        synchronized (shard) {
+            value = shard.hit(key, weigher);
+            if (value != null) {
+                hits.increment();
+                evicted = shard.evict(key);
+            } else {
+                misses.increment();
+                value = loader.apply(key);
+                if (value == null) return null;
+                shard.insert(key, value, weigher.applyAsLong(value));
+                evicted = shard.evict(key);
+            }
+        }
+        notifyEvicted(evicted);
+        return value;
+    }
+
+    /**
+     * Returns the cached value, or null without loading anything. A value found
+     * counts as a hit; a miss is left for the {@link #get} that follows to count.
+     */
+    public V getIfPresent(K key) {
+        Shard<K, V> shard = shardFor(key);
+        V value;
+        List<V> evicted;
+        synchronized (shard) {
+            value = shard.hit(key, weigher);
+            if (value == null) return null;
+            hits.increment();
+            evicted = shard.evict(key);
+        }
+        notifyEvicted(evicted);
+        return value;
+    }
+
+    /**
+     * Adds or replaces a value.
+     */
+    public void put(K key, V value) {
+        Shard<K, V> shard = shardFor(key);
+        List<V> evicted;
+        synchronized (shard) {
+            shard.remove(key);
+            shard.insert(key, value, weigher.applyAsLong(value));
+            evicted = shard.evict(key);
+        }
+        notifyEvicted(evicted);
+    }
+
+    public void invalidate(K key) {
+        Shard<K, V> shard = shardFor(key);
+        synchronized (shard) {
+            shard.remove(key);
+        }
+    }
+
+    /**
+     * Snapshot of the values currently cached.
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>();
+        for (Shard<K, V> shard : shards) {
+            synchronized (shard) {
+                shard.probation.values().forEach(n -> values.add(n.value));
+                shard.protectedSegment.values().forEach(n -> values.add(n.value));
+            }
+        }
+        return values;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard<K, V> shard : shards) {
+            synchronized (shard) {
+                size += shard.probation.size() + shard.protectedSegment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Total weight currently held.
+     */
+    public long weight() {
+        long weight = 0;
+        for (Shard<K, V> shard : shards) {
+            synchronized (shard) {
+                weight += shard.probationWeight + shard.protectedWeight;
+            }
+        }
+        return weight;
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache{entries=%d, weight=%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d}",
+                size(), weight(), getHits(), getMisses(), getHitRate() * 100, getEvictions());
+    }
+
+    private Shard<K, V> shardFor(K key) {
+        int h = key.hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    private void notifyEvicted(List<V> evicted) {
+        if (evicted.isEmpty()) return;
+        evictions.add(evicted.size());
+        if (onEvict != null) evicted.forEach(onEvict);
+    }
+
+    private static final class Node<V> {
+        final V value;
+        long weight;
+
+        Node(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /** Two access-ordered maps; guarded by the shard's monitor. */
+    private static final class Shard<K, V> {
+        final long maxWeight;
+        final long maxProtectedWeight;
+        final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+        final LinkedHashMap<K, Node<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+        long probationWeight;
+        long protectedWeight;
+
+        Shard(long maxWeight) {
+            this.maxWeight = maxWeight;
+            this.maxProtectedWeight = maxWeight * PROTECTED_PERCENT / 100;
+        }
+
+        V hit(K key, ToLongFunction<? super V> weigher) {
+            Node<V> node = protectedSegment.get(key); // moves it to the MRU end
+            if (node != null) {
+                long weight = weigher.applyAsLong(node.value);
+                protectedWeight += weight - node.weight;
+                node.weight = weight;
+                demoteOverflow();
+                return node.value;
+            }
+            node = probation.remove(key);
+            if (node == null) return null;
+            probationWeight -= node.weight;
+            node.weight = weigher.applyAsLong(node.value);
+            protectedSegment.put(key, node);
+            protectedWeight += node.weight;
+            demoteOverflow();
+            return node.value;
+        }
+
+        void insert(K key, V value, long weight) {
+            probation.put(key, new Node<>(value, weight));
+            probationWeight += weight;
+        }
+
+        void remove(K key) {
+            Node<V> node = probation.remove(key);
+            if (node != null) {
+                probationWeight -= node.weight;
+                return;
+            }
+            node = protectedSegment.remove(key);
+            if (node != null) protectedWeight -= node.weight;
+        }
+
+        /**
+         * Protected entries over its share fall back to probation (most recent end).
+         */
+        private void demoteOverflow() {
+            Iterator<Map.Entry<K, Node<V>>> it = protectedSegment.entrySet().iterator();
+            while (protectedWeight > maxProtectedWeight && protectedSegment.size() > 1 && it.hasNext()) {
+                Map.Entry<K, Node<V>> eldest = it.next();
+                it.remove();
+                protectedWeight -= eldest.getValue().weight;
+                probation.put(eldest.getKey(), eldest.getValue());
+                probationWeight += eldest.getValue().weight;
+            }
+        }
+
+        /**
+         * Drops least recently used entries, probation first, until the shard
+         * fits. The entry just used (keep) is never dropped.
+         */
+        List<V> evict(K keep) {
+            List<V> evicted = List.of();
+            while (probationWeight + protectedWeight > maxWeight) {
+                Map.Entry<K, Node<V>> victim = eldestExcept(probation, keep);
+                boolean fromProbation = victim != null;
+                if (victim == null) victim = eldestExcept(protectedSegment, keep);
+                if (victim == null) break;
+                if (fromProbation) {
+                    probation.remove(victim.getKey());
+                    probationWeight -= victim.getValue().weight;
+                } else {
+                    protectedSegment.remove(victim.getKey());
+                    protectedWeight -= victim.getValue().weight;
+                }
+                if (evicted.isEmpty()) evicted = new ArrayList<>();
+                evicted.add(victim.getValue().value);
+            }
+            return evicted;
+        }
+
+        private static <K, V> Map.Entry<K, Node<V>> eldestExcept(LinkedHashMap<K, Node<V>> segment, K keep) {
+            for (Map.Entry<K, Node<V>> e : segment.entrySet()) {
+                if (!e.getKey().equals(keep)) return e;
+            }
+            return null;
+        }
+    }
+}
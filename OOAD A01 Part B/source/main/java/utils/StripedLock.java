@@ -0,0 +1,47 @@
+// utils/StripedLock.java
+package utils;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed table of reentrant locks shared by key hash.
+ * Gives per-key mutual exclusion without a lock object per key; two keys
+ * that land on the same stripe simply share a lock.
+ */
+public class StripedLock {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes Number of stripes, rounded up to a power of two
+     */
+    public StripedLock(int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("Stripe count must be at least 1.");
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Stripe index for the key. Locks taken in ascending stripe order never deadlock.
+     */
+    public int stripeOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    public ReentrantLock get(String key) {
+        return stripes[stripeOf(key)];
+    }
+
+    public ReentrantLock getAt(int stripe) {
+        return stripes[stripe];
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+}